@@ -0,0 +1,100 @@
+package com.outofmint;
+
+import com.outofmint.synth.Generators;
+import com.outofmint.synth.InputGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Base class of the per-day benchmarks, measuring the parse and the solve phase of a {@link Solver} separately.
+ * <p>
+ * Subclasses declare the year and day and the bundled inputs and parts to run as {@code @Param}s. The input resource
+ * is copied to a temporary file once per trial, so the parse benchmark measures reading from the file system just
+ * like the runner does. The solve benchmark reuses a single parsed model, which is fine as long as solvers do not
+ * modify their input.
+ * <p>
+ * An input of the form {@code synthetic:<scale>} is written by the day's {@link InputGenerator} instead, with a fixed
+ * seed, so benchmarks can measure how the solvers scale far beyond the bundled inputs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public abstract class SolverBenchmark {
+
+    private static final String SYNTHETIC = "synthetic:";
+    private static final long SEED = 1;
+
+    private Solver<Object> solver;
+    private Path path;
+    private Object parsed;
+
+    protected abstract int year();
+
+    protected abstract int day();
+
+    /**
+     * @return the part to benchmark, usually bound to a {@code @Param}
+     */
+    protected abstract int part();
+
+    /**
+     * @return the class path resource of the input or {@code synthetic:<scale>}, usually bound to a {@code @Param}
+     */
+    protected abstract String input();
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() throws IOException {
+        final List<Solver<?>> selected = Solvers.select(year() + "/" + day() + "/" + part());
+        if (selected.size() != 1) {
+            throw new IllegalStateException("no solver for " + year() + "/" + day() + "/" + part());
+        }
+        solver = (Solver<Object>) selected.get(0);
+        path = Files.createTempFile("aoc-" + year() + "-" + day() + "-", ".txt");
+        if (input().startsWith(SYNTHETIC)) {
+            Generators.of(year(), day()).write(Long.parseLong(input().substring(SYNTHETIC.length())), SEED, path);
+        } else {
+            try (InputStream in = Objects.requireNonNull(SolverBenchmark.class.getResourceAsStream(input()),
+                    input())) {
+                Files.copy(in, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        parsed = solver.parse(path);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(path);
+    }
+
+    @Benchmark
+    public Object parse() throws IOException {
+        return solver.parse(path);
+    }
+
+    @Benchmark
+    public long solve() {
+        return solver.solve(parsed);
+    }
+}
@@ -0,0 +1,33 @@
+package com.outofmint.aoc2023;
+
+import com.outofmint.SolverBenchmark;
+import org.openjdk.jmh.annotations.Param;
+
+public class Day5Benchmark extends SolverBenchmark {
+
+    @Param({"/2023/day5-example.txt", "/2023/day5.txt", "synthetic:10000"})
+    public String input;
+
+    @Param({"1", "2"})
+    public int part;
+
+    @Override
+    protected int year() {
+        return 2023;
+    }
+
+    @Override
+    protected int day() {
+        return 5;
+    }
+
+    @Override
+    protected int part() {
+        return part;
+    }
+
+    @Override
+    protected String input() {
+        return input;
+    }
+}
@@ -0,0 +1,33 @@
+package com.outofmint.aoc2024;
+
+import com.outofmint.SolverBenchmark;
+import org.openjdk.jmh.annotations.Param;
+
+public class Day2Benchmark extends SolverBenchmark {
+
+    @Param({"/2024/day2-example.txt", "/2024/day2-input.txt", "synthetic:1000000"})
+    public String input;
+
+    @Param({"1", "2"})
+    public int part;
+
+    @Override
+    protected int year() {
+        return 2024;
+    }
+
+    @Override
+    protected int day() {
+        return 2;
+    }
+
+    @Override
+    protected int part() {
+        return part;
+    }
+
+    @Override
+    protected String input() {
+        return input;
+    }
+}
@@ -0,0 +1,33 @@
+package com.outofmint.aoc2024;
+
+import com.outofmint.SolverBenchmark;
+import org.openjdk.jmh.annotations.Param;
+
+public class Day5Benchmark extends SolverBenchmark {
+
+    @Param({"/2024/day5-example.txt", "/2024/day5-input.txt", "synthetic:200000"})
+    public String input;
+
+    @Param({"1", "2"})
+    public int part;
+
+    @Override
+    protected int year() {
+        return 2024;
+    }
+
+    @Override
+    protected int day() {
+        return 5;
+    }
+
+    @Override
+    protected int part() {
+        return part;
+    }
+
+    @Override
+    protected String input() {
+        return input;
+    }
+}
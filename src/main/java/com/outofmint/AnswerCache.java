@@ -0,0 +1,135 @@
+package com.outofmint;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.stream.Stream;
+
+/**
+ * An on-disk cache of answers, keyed by the SHA-256 of the input file and the solver's name and
+ * {@linkplain Solver#version() version}.
+ * <p>
+ * Every answer is a small file in the cache directory. A hit refreshes the file's modification time, and storing an
+ * answer evicts the least recently used answers beyond {@code maxEntries}, so the modification times double as the
+ * LRU order and survive restarts. Parsed models are not cached, as they are neither serializable nor cheaper to load
+ * than to parse.
+ */
+public final class AnswerCache {
+
+    private static final String SUFFIX = ".answer";
+
+    private final Path directory;
+    private final int maxEntries;
+
+    /**
+     * @param directory  the cache directory, created if missing
+     * @param maxEntries the number of answers to keep
+     */
+    public AnswerCache(Path directory, int maxEntries) throws IOException {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("cache size must be positive, was " + maxEntries);
+        }
+        this.directory = Files.createDirectories(directory);
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * @return the key of the answer of {@code solver} for {@code input}
+     */
+    public String key(Solver<?> solver, Path input) throws IOException {
+        return sha256(input) + "-" + solver.year() + "-" + solver.day() + "-" + solver.part() + "-v" + solver.version();
+    }
+
+    /**
+     * Looks up an answer, marking it as recently used.
+     */
+    public OptionalLong get(String key) throws IOException {
+        final Path file = file(key);
+        try {
+            final long answer = Long.parseLong(Files.readString(file, StandardCharsets.US_ASCII).trim());
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            return OptionalLong.of(answer);
+        } catch (NoSuchFileException e) {
+            return OptionalLong.empty();
+        } catch (NumberFormatException e) {
+            // not written by this cache, treated as a miss
+            Files.deleteIfExists(file);
+            return OptionalLong.empty();
+        }
+    }
+
+    /**
+     * Stores an answer and evicts the least recently used answers beyond the size bound.
+     */
+    public void put(String key, long answer) throws IOException {
+        final Path temp = Files.createTempFile(directory, key, ".tmp");
+        Files.writeString(temp, Long.toString(answer), StandardCharsets.US_ASCII);
+        Files.move(temp, file(key), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        evict();
+    }
+
+    /**
+     * @return the number of cached answers
+     */
+    public int size() throws IOException {
+        return entries().size();
+    }
+
+    private void evict() throws IOException {
+        final List<Path> entries = entries();
+        if (entries.size() <= maxEntries) {
+            return;
+        }
+        final List<Path> byAge = entries.stream()
+                .sorted(Comparator.comparing(AnswerCache::lastModified))
+                .toList();
+        for (Path evicted : byAge.subList(0, entries.size() - maxEntries)) {
+            Files.deleteIfExists(evicted);
+        }
+    }
+
+    private List<Path> entries() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(f -> f.getFileName().toString().endsWith(SUFFIX)).toList();
+        }
+    }
+
+    private static FileTime lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (IOException e) {
+            // removed by a concurrent run in the meantime
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    private Path file(String key) {
+        return directory.resolve(key + SUFFIX);
+    }
+
+    static String sha256(Path input) throws IOException {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        try (InputStream in = new DigestInputStream(Files.newInputStream(input), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+}
@@ -1,13 +1,239 @@
 package com.outofmint;
 
+import com.outofmint.trace.AnsiRenderer;
+import com.outofmint.trace.AsyncFileSink;
+import com.outofmint.trace.HtmlRenderer;
+import com.outofmint.trace.TraceRenderer;
+import com.outofmint.trace.Tracer;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
 /**
- * Hello world!
- *
+ * Command line entry point running one, several or all {@link Solver}s in a single JVM.
+ * <pre>
+ * usage: App [--inputs DIR] [--warmup N] [--runs N] [--baseline FILE] [--trace FILE [--trace-sample N]]
+ *            [--cache DIR [--cache-size N]] [--report FILE] [selector...]
+ *   selector           year, year/day or year/day/part, all solvers if omitted
+ *   --inputs DIR       directory holding the puzzle inputs (default: src/test/resources)
+ *   --warmup N         untimed runs of every selected solver before the timed runs (default: 0)
+ *   --runs N           timed runs of every selected solver, reporting the median times (default: 1, or 8 with
+ *                      --baseline)
+ *   --baseline FILE    compares the times of the timed runs with the ones in FILE, exiting with status 1 if a solver
+ *                      got significantly slower, and adds the solvers FILE does not know yet; needs at least 8 runs
+ *   --trace FILE       writes the trace events of the timed runs to FILE, as HTML if it ends with .html
+ *   --trace-sample N   traces only every N-th event (default: 1)
+ *   --cache DIR        takes answers known for the same input and solver version from DIR and stores new ones
+ *   --cache-size N     answers kept in the cache, evicting the least recently used ones (default: 1000)
+ *   --report FILE      writes the answers and metrics of every timed run to FILE, as JSON if it ends with .json
+ *                      and as CSV otherwise
+ * </pre>
  */
-public class App 
-{
-    public static void main( String[] args )
-    {
-        System.out.println( "Hello World!" );
+public class App {
+
+    private static final int TRACE_QUEUE_CAPACITY = 1024;
+
+    private static final int DEFAULT_CACHE_SIZE = 1000;
+
+    static final String USAGE = "usage: App [--inputs DIR] [--warmup N] [--runs N] [--baseline FILE]"
+            + " [--trace FILE [--trace-sample N]] [--cache DIR [--cache-size N]] [--report FILE] [selector...]";
+
+    public static void main(String[] args) throws IOException {
+        final Options options;
+        try {
+            options = Options.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+            return;
+        }
+        final int status = run(options, System.out);
+        if (status != 0) {
+            System.exit(status);
+        }
+    }
+
+    /**
+     * @return the exit status, 1 if a solver regressed against the baseline
+     */
+    static int run(Options options, PrintStream out) throws IOException {
+        final Runner runner = new Runner(options.inputs(),
+                options.cache() != null ? new AnswerCache(options.cache(), options.cacheSize()) : null);
+        final List<Solver<?>> solvers = options.solvers();
+        for (int i = 0; i < options.warmup(); i++) {
+            for (Solver<?> solver : solvers) {
+                runner.run(solver);
+            }
+        }
+        final List<Runner.Result> results = new ArrayList<>();
+        final Map<String, long[]> samples = new LinkedHashMap<>();
+        try (Tracer.Installation ignored = options.trace() != null ? trace(options) : null) {
+            for (Solver<?> solver : solvers) {
+                final Runner.Result[] runs = new Runner.Result[options.runs()];
+                for (int i = 0; i < runs.length; i++) {
+                    runs[i] = runner.run(solver);
+                    results.add(runs[i]);
+                }
+                if (runs[0].cached()) {
+                    out.printf("%d day %2d part %d: %15d   cached%n",
+                            solver.year(), solver.day(), solver.part(), runs[0].answer());
+                    continue;
+                }
+                samples.put(solver.name(), Arrays.stream(runs).mapToLong(r -> r.parseNanos() + r.solveNanos())
+                        .toArray());
+                out.printf("%d day %2d part %d: %15d   parse %10.3f ms   solve %10.3f ms   alloc %10s MB%n",
+                        solver.year(), solver.day(), solver.part(), runs[0].answer(),
+                        median(runs, Runner.Result::parseNanos) / 1e6,
+                        median(runs, Runner.Result::solveNanos) / 1e6,
+                        allocated(runs));
+            }
+        }
+        if (options.report() != null) {
+            Report.write(options.report(), results);
+        }
+        return options.baseline() != null ? compare(options.baseline(), samples, out) : 0;
+    }
+
+    private static double median(Runner.Result[] runs, ToLongFunction<Runner.Result> value) {
+        return Baseline.median(Arrays.stream(runs).mapToLong(value).toArray());
+    }
+
+    /**
+     * @return the median megabytes allocated per run, {@code n/a} if the JVM cannot measure them
+     */
+    static String allocated(Runner.Result[] runs) {
+        if (runs[0].metrics().parseBytes() < 0 || runs[0].metrics().solveBytes() < 0) {
+            return "n/a";
+        }
+        return String.format("%.3f",
+                median(runs, r -> r.metrics().parseBytes() + r.metrics().solveBytes()) / 1e6);
+    }
+
+    /**
+     * Prints how the timed runs compare with the baseline and records the solvers the baseline does not know.
+     *
+     * @return 1 if a solver regressed, 0 otherwise
+     */
+    private static int compare(Path file, Map<String, long[]> samples, PrintStream out) throws IOException {
+        final Baseline baseline = Baseline.read(file);
+        boolean recorded = false;
+        int regressions = 0;
+        out.printf("%n%-12s %14s %14s %16s %10s%n", "solver", "baseline ms", "current ms", "change", "p");
+        for (Map.Entry<String, long[]> entry : samples.entrySet()) {
+            final long[] known = baseline.samples(entry.getKey());
+            if (known == null) {
+                baseline.put(entry.getKey(), entry.getValue());
+                recorded = true;
+                out.printf("%-12s %14s %14.3f %16s%n", entry.getKey(), "-",
+                        Baseline.median(entry.getValue()) / 1e6, "recorded");
+                continue;
+            }
+            final Baseline.Comparison comparison = Baseline.compare(entry.getKey(), known, entry.getValue());
+            final String change = comparison.speedup() >= 1
+                    ? String.format("%.2fx faster", comparison.speedup())
+                    : String.format("%.2fx slower", 1 / comparison.speedup());
+            out.printf("%-12s %14.3f %14.3f %16s %10.4f%s%n", comparison.solver(), comparison.baselineMedian() / 1e6,
+                    comparison.currentMedian() / 1e6, change, comparison.p(),
+                    comparison.regression() ? "   REGRESSION" : "");
+            if (comparison.regression()) {
+                regressions++;
+            }
+        }
+        if (recorded) {
+            baseline.write(file);
+        }
+        if (regressions > 0) {
+            out.printf("%d solver(s) regressed%n", regressions);
+            return 1;
+        }
+        return 0;
+    }
+
+    private static Tracer.Installation trace(Options options) throws IOException {
+        final TraceRenderer renderer = options.trace().toString().endsWith(".html")
+                ? new HtmlRenderer()
+                : new AnsiRenderer();
+        return Tracer.install(new AsyncFileSink(options.trace(), renderer, TRACE_QUEUE_CAPACITY),
+                options.traceSample());
+    }
+
+    /**
+     * The parsed command line.
+     */
+    record Options(Path inputs, int warmup, int runs, Path baseline, Path trace, long traceSample, Path cache,
+                   int cacheSize, Path report, List<Solver<?>> solvers) {
+
+        static Options parse(String... args) {
+            Path inputs = Path.of("src", "test", "resources");
+            int warmup = 0;
+            Integer runs = null;
+            Path baseline = null;
+            Path trace = null;
+            long traceSample = 1;
+            Path cache = null;
+            int cacheSize = DEFAULT_CACHE_SIZE;
+            Path report = null;
+            final Map<String, Solver<?>> solvers = new LinkedHashMap<>();
+            final List<String> selectors = new ArrayList<>();
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--inputs" -> inputs = Path.of(value(args, ++i));
+                    case "--warmup" -> warmup = Integer.parseInt(value(args, ++i));
+                    case "--runs" -> runs = Integer.parseInt(value(args, ++i));
+                    case "--baseline" -> baseline = Path.of(value(args, ++i));
+                    case "--trace" -> trace = Path.of(value(args, ++i));
+                    case "--trace-sample" -> traceSample = Long.parseLong(value(args, ++i));
+                    case "--cache" -> cache = Path.of(value(args, ++i));
+                    case "--cache-size" -> cacheSize = Integer.parseInt(value(args, ++i));
+                    case "--report" -> report = Path.of(value(args, ++i));
+                    default -> {
+                        if (args[i].startsWith("--")) {
+                            throw new IllegalArgumentException("unknown option " + args[i]);
+                        }
+                        selectors.add(args[i]);
+                    }
+                }
+            }
+            if (runs == null) {
+                runs = baseline != null ? Baseline.MIN_SAMPLES : 1;
+            }
+            if (runs < 1) {
+                throw new IllegalArgumentException("--runs must be at least 1");
+            }
+            if (baseline != null && runs < Baseline.MIN_SAMPLES) {
+                throw new IllegalArgumentException("--baseline needs at least " + Baseline.MIN_SAMPLES
+                        + " runs to detect a regression");
+            }
+            if (baseline != null && cache != null) {
+                throw new IllegalArgumentException("--baseline needs timed runs and cannot be used with --cache");
+            }
+            if (selectors.isEmpty()) {
+                Solvers.all().forEach(s -> solvers.put(s.name(), s));
+            }
+            for (String selector : selectors) {
+                final List<Solver<?>> selected = Solvers.select(selector);
+                if (selected.isEmpty()) {
+                    throw new IllegalArgumentException("no solver for " + selector);
+                }
+                selected.forEach(s -> solvers.putIfAbsent(s.name(), s));
+            }
+            return new Options(inputs, warmup, runs, baseline, trace, traceSample, cache, cacheSize, report,
+                    List.copyOf(solvers.values()));
+        }
+
+        private static String value(String[] args, int i) {
+            if (i >= args.length) {
+                throw new IllegalArgumentException("missing value for " + args[i - 1]);
+            }
+            return args[i];
+        }
     }
 }
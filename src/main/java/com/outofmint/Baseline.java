@@ -0,0 +1,153 @@
+package com.outofmint;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Timing samples of every solver, kept in a text file with one line of {@code <solver> <nanos>...} per solver, and
+ * compared with the samples of a later run by a Mann-Whitney U test.
+ * <p>
+ * A solver has regressed if its samples are significantly slower at level {@link #ALPHA} and its median is at least
+ * {@link #MIN_SLOWDOWN} times the baseline median, so that many samples do not turn noise into regressions. With
+ * fewer than {@link #MIN_SAMPLES} samples on either side no difference is significant at that level.
+ */
+public final class Baseline {
+
+    static final double ALPHA = 0.01;
+    static final double MIN_SLOWDOWN = 1.05;
+    static final int MIN_SAMPLES = 8;
+
+    private final Map<String, long[]> samples;
+
+    private Baseline(Map<String, long[]> samples) {
+        this.samples = samples;
+    }
+
+    /**
+     * @return the baseline in the file, empty if there is no such file
+     */
+    public static Baseline read(Path file) throws IOException {
+        final Map<String, long[]> samples = new LinkedHashMap<>();
+        if (Files.exists(file)) {
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                final String[] fields = line.trim().split("\\s+");
+                if (fields.length < 2) {
+                    continue;
+                }
+                samples.put(fields[0], Arrays.stream(fields, 1, fields.length).mapToLong(Long::parseLong).toArray());
+            }
+        }
+        return new Baseline(samples);
+    }
+
+    public void write(Path file) throws IOException {
+        final List<String> lines = new ArrayList<>();
+        samples.forEach((name, nanos) -> {
+            final StringBuilder line = new StringBuilder(name);
+            for (long n : nanos) {
+                line.append(' ').append(n);
+            }
+            lines.add(line.toString());
+        });
+        Files.write(file, lines, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return the samples of the solver, {@code null} if the baseline has none
+     */
+    public long[] samples(String solver) {
+        return samples.get(solver);
+    }
+
+    public void put(String solver, long[] nanos) {
+        samples.put(solver, nanos.clone());
+    }
+
+    /**
+     * The comparison of a solver's current samples with its baseline.
+     *
+     * @param speedup the baseline median divided by the current median, below 1 if the solver got slower
+     * @param p       the two-sided p-value of the Mann-Whitney U test
+     */
+    public record Comparison(String solver, double baselineMedian, double currentMedian, double speedup, double p) {
+
+        public boolean regression() {
+            return p < ALPHA && currentMedian >= MIN_SLOWDOWN * baselineMedian;
+        }
+    }
+
+    public static Comparison compare(String solver, long[] baseline, long[] current) {
+        final double baselineMedian = median(baseline);
+        final double currentMedian = median(current);
+        return new Comparison(solver, baselineMedian, currentMedian, baselineMedian / currentMedian,
+                mannWhitney(baseline, current));
+    }
+
+    static double median(long[] samples) {
+        final long[] sorted = samples.clone();
+        Arrays.sort(sorted);
+        final int mid = sorted.length / 2;
+        return sorted.length % 2 == 1 ? sorted[mid] : (sorted[mid - 1] + sorted[mid]) / 2.0;
+    }
+
+    /**
+     * The two-sided p-value of the Mann-Whitney U test, by the normal approximation with tie and continuity
+     * correction, which is fair from about eight samples each.
+     */
+    static double mannWhitney(long[] a, long[] b) {
+        if (a.length == 0 || b.length == 0) {
+            return 1;
+        }
+        final int n = a.length + b.length;
+        // all samples sorted, each paired with 1 if it is one of a and 0 otherwise
+        final long[][] all = new long[n][];
+        for (int i = 0; i < a.length; i++) {
+            all[i] = new long[]{a[i], 1};
+        }
+        for (int i = 0; i < b.length; i++) {
+            all[a.length + i] = new long[]{b[i], 0};
+        }
+        Arrays.sort(all, (x, y) -> Long.compare(x[0], y[0]));
+        double rankSumA = 0;
+        double ties = 0;
+        for (int i = 0; i < n; ) {
+            int j = i;
+            while (j < n && all[j][0] == all[i][0]) {
+                j++;
+            }
+            final double rank = (i + 1 + j) / 2.0;
+            for (int k = i; k < j; k++) {
+                rankSumA += rank * all[k][1];
+            }
+            final double t = j - i;
+            ties += t * t * t - t;
+            i = j;
+        }
+        final double u = rankSumA - a.length * (a.length + 1) / 2.0;
+        final double mean = a.length * (double) b.length / 2;
+        final double variance = a.length * (double) b.length / 12 * ((n + 1) - ties / ((double) n * (n - 1)));
+        if (variance <= 0) {
+            return 1;
+        }
+        final double z = Math.max(0, Math.abs(u - mean) - 0.5) / Math.sqrt(variance);
+        return Math.min(1, 2 * (1 - normal(z)));
+    }
+
+    /**
+     * The standard normal distribution function, by the approximation 7.1.26 of Abramowitz and Stegun.
+     */
+    private static double normal(double z) {
+        final double x = Math.abs(z) / Math.sqrt(2);
+        final double t = 1 / (1 + 0.3275911 * x);
+        final double erf = 1 - t * (0.254829592 + t * (-0.284496736 + t * (1.421413741
+                + t * (-1.453152027 + t * 1.061405429)))) * Math.exp(-x * x);
+        return z >= 0 ? (1 + erf) / 2 : (1 - erf) / 2;
+    }
+}
@@ -0,0 +1,131 @@
+package com.outofmint;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.ThreadMXBean;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * What a solver run cost, besides time: the bytes allocated in each phase, the garbage collections during the run and
+ * the peak heap usage.
+ * <p>
+ * Allocations are summed over all live threads, so work done on the {@link Workers} pool counts as well, but
+ * allocations of threads that end during the run are lost. They are {@code -1} if the JVM cannot measure them. The
+ * peak heap is the sum of the peaks of all heap pools, so it may be more than the heap was at any one time.
+ *
+ * @param parseBytes    bytes allocated while parsing
+ * @param solveBytes    bytes allocated while solving
+ * @param gcCount       garbage collections during the run
+ * @param gcMillis      time spent in garbage collections during the run, as far as the collectors report it
+ * @param peakHeapBytes the peak heap usage during the run
+ */
+public record Metrics(long parseBytes, long solveBytes, long gcCount, long gcMillis, long peakHeapBytes) {
+
+    /**
+     * The metrics of a cached answer.
+     */
+    public static final Metrics NONE = new Metrics(0, 0, 0, 0, 0);
+
+    /**
+     * Starts measuring a run, resetting the peak heap usage.
+     */
+    static Probe start() {
+        return new Probe();
+    }
+
+    /**
+     * Measures a single run on the calling thread. Phases are delimited by calls to {@link #phase()}.
+     */
+    static final class Probe {
+
+        private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+        private static final boolean ALLOCATIONS = allocationsSupported();
+
+        private final long gcCount;
+        private final long gcMillis;
+        private Map<Long, Long> allocated;
+
+        private Probe() {
+            for (MemoryPoolMXBean pool : heapPools()) {
+                pool.resetPeakUsage();
+            }
+            gcCount = gcCount();
+            gcMillis = gcMillis();
+            allocated = allocated();
+        }
+
+        /**
+         * @return the bytes allocated since the start or the previous phase
+         */
+        long phase() {
+            if (!ALLOCATIONS) {
+                return -1;
+            }
+            final Map<Long, Long> now = allocated();
+            long bytes = 0;
+            for (Map.Entry<Long, Long> thread : now.entrySet()) {
+                bytes += thread.getValue() - allocated.getOrDefault(thread.getKey(), 0L);
+            }
+            allocated = now;
+            return bytes;
+        }
+
+        Metrics finish(long parseBytes, long solveBytes) {
+            long peak = 0;
+            for (MemoryPoolMXBean pool : heapPools()) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+            return new Metrics(parseBytes, solveBytes, gcCount() - gcCount, gcMillis() - gcMillis, peak);
+        }
+
+        private static Map<Long, Long> allocated() {
+            final Map<Long, Long> allocated = new HashMap<>();
+            if (!ALLOCATIONS) {
+                return allocated;
+            }
+            final long[] ids = THREADS.getAllThreadIds();
+            final long[] bytes = ((com.sun.management.ThreadMXBean) THREADS).getThreadAllocatedBytes(ids);
+            for (int i = 0; i < ids.length; i++) {
+                if (bytes[i] >= 0) {
+                    allocated.put(ids[i], bytes[i]);
+                }
+            }
+            return allocated;
+        }
+
+        private static boolean allocationsSupported() {
+            if (THREADS instanceof com.sun.management.ThreadMXBean threads
+                    && threads.isThreadAllocatedMemorySupported()) {
+                threads.setThreadAllocatedMemoryEnabled(true);
+                return true;
+            }
+            return false;
+        }
+
+        private static List<MemoryPoolMXBean> heapPools() {
+            return ManagementFactory.getMemoryPoolMXBeans().stream()
+                    .filter(pool -> pool.getType() == MemoryType.HEAP && pool.isValid())
+                    .toList();
+        }
+
+        private static long gcCount() {
+            long count = 0;
+            for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+                count += Math.max(0, gc.getCollectionCount());
+            }
+            return count;
+        }
+
+        private static long gcMillis() {
+            long millis = 0;
+            for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+                millis += Math.max(0, gc.getCollectionTime());
+            }
+            return millis;
+        }
+    }
+}
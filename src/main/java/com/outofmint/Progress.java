@@ -0,0 +1,157 @@
+package com.outofmint;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Progress of a long-running task with a known amount of work, reported at a fixed interval.
+ * <p>
+ * Workers {@link #add(long) add} the work they finished to a {@link LongAdder}, whose striped cells keep them from
+ * contending on a single counter, and never format or log anything. A single daemon thread, shared by all trackers
+ * and started on first use, samples the count at every interval and reports the throughput, the percentage done and
+ * the estimated time left. Workers should add whole batches rather than single items, which keeps even the adder off
+ * the hot path.
+ * <pre>
+ * try (Progress progress = Progress.start("seeds", seeds.length)) {
+ *     ... progress.add(batch) on any thread ...
+ * }
+ * </pre>
+ */
+public final class Progress implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(Progress.class);
+
+    /**
+     * The reporting interval of {@link #start(String, long)}.
+     */
+    public static final Duration INTERVAL = Duration.ofSeconds(1);
+
+    /**
+     * A tracker that never reports and ignores the work added to it, shared by all tasks not worth tracking.
+     */
+    public static final Progress NONE = new Progress("", 0, null);
+
+    private final String task;
+    private final long total;
+    private final Consumer<String> out;
+    /**
+     * The work done, {@code null} for {@link #NONE}, which would otherwise be a counter contended by every task.
+     */
+    private final LongAdder done;
+    private final long startNanos = System.nanoTime();
+    private volatile ScheduledFuture<?> reporter;
+    private boolean closed;
+
+    private Progress(String task, long total, Consumer<String> out) {
+        this.task = task;
+        this.total = total;
+        this.out = out;
+        this.done = out != null ? new LongAdder() : null;
+    }
+
+    /**
+     * Starts tracking a task, logging its progress every {@link #INTERVAL} if info logging is enabled.
+     */
+    public static Progress start(String task, long total) {
+        if (!log.isInfoEnabled()) {
+            return NONE;
+        }
+        return start(task, total, INTERVAL, log::info);
+    }
+
+    /**
+     * Starts tracking a task.
+     *
+     * @param total    the amount of work, {@code 0} if it is not known
+     * @param interval the time between two reports
+     * @param out      receives the reports, on the reporter thread and finally on the thread closing the tracker
+     */
+    public static Progress start(String task, long total, Duration interval, Consumer<String> out) {
+        final Progress progress = new Progress(task, total, Objects.requireNonNull(out));
+        final long nanos = interval.toNanos();
+        progress.reporter = Reporter.THREAD.scheduleAtFixedRate(progress::tick, nanos, nanos,
+                TimeUnit.NANOSECONDS);
+        return progress;
+    }
+
+    public void add(long work) {
+        if (done != null) {
+            done.add(work);
+        }
+    }
+
+    /**
+     * @return the work done so far, always {@code 0} for {@link #NONE}
+     */
+    public long done() {
+        return done != null ? done.sum() : 0;
+    }
+
+    /**
+     * Stops reporting and reports the final state, after any report still running on the reporter thread.
+     */
+    @Override
+    public void close() {
+        if (reporter != null) {
+            reporter.cancel(false);
+            reporter = null;
+            synchronized (this) {
+                closed = true;
+                report();
+            }
+        }
+    }
+
+    private synchronized void tick() {
+        if (!closed) {
+            report();
+        }
+    }
+
+    private void report() {
+        out.accept(format(task, done.sum(), total, System.nanoTime() - startNanos));
+    }
+
+    /**
+     * Formats a report, e.g. {@code "seeds: 250 / 1000 (25.0%), 250 per s, ETA 0:00:03"}.
+     */
+    static String format(String task, long done, long total, long elapsedNanos) {
+        final double rate = elapsedNanos > 0 ? done * 1e9 / elapsedNanos : 0;
+        final StringBuilder line = new StringBuilder(task).append(": ").append(done);
+        if (total > 0) {
+            line.append(" / ").append(total)
+                    .append(String.format(Locale.ROOT, " (%.1f%%)", 100.0 * done / total));
+        }
+        line.append(", ").append(String.format(Locale.ROOT, "%.0f", rate)).append(" per s");
+        if (total > 0) {
+            line.append(", ETA ");
+            if (rate > 0) {
+                final long seconds = (long) Math.ceil(Math.max(0, total - done) / rate);
+                line.append(String.format(Locale.ROOT, "%d:%02d:%02d", seconds / 3600, seconds / 60 % 60,
+                        seconds % 60));
+            } else {
+                line.append('?');
+            }
+        }
+        return line.toString();
+    }
+
+    private static final class Reporter {
+
+        private static final ScheduledExecutorService THREAD = Executors.newSingleThreadScheduledExecutor(task -> {
+            final Thread thread = new Thread(task, "aoc-progress");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
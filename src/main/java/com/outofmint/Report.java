@@ -0,0 +1,78 @@
+package com.outofmint;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Writes the answers and {@link Metrics} of a run of the {@link App} in a machine-readable format, one record per
+ * timed run of a solver, numbered from 1 per solver in the {@code run} column: JSON if the file name ends with
+ * {@code .json}, CSV otherwise. Metrics the JVM cannot measure are written as {@code -1}.
+ */
+public final class Report {
+
+    static final String[] COLUMNS = {"year", "day", "part", "run", "answer", "cached", "parseNanos", "solveNanos",
+            "parseBytes", "solveBytes", "gcCount", "gcMillis", "peakHeapBytes"};
+
+    private Report() {
+    }
+
+    public static void write(Path file, List<Runner.Result> results) throws IOException {
+        final String report = file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".json")
+                ? json(results)
+                : csv(results);
+        Files.writeString(file, report, StandardCharsets.UTF_8);
+    }
+
+    static String csv(List<Runner.Result> results) {
+        final StringBuilder csv = new StringBuilder(String.join(",", COLUMNS)).append('\n');
+        final int[] runs = runs(results);
+        for (int r = 0; r < results.size(); r++) {
+            final Object[] values = values(results.get(r), runs[r]);
+            for (int i = 0; i < values.length; i++) {
+                csv.append(i > 0 ? "," : "").append(values[i]);
+            }
+            csv.append('\n');
+        }
+        return csv.toString();
+    }
+
+    static String json(List<Runner.Result> results) {
+        final StringBuilder json = new StringBuilder("[");
+        final int[] runs = runs(results);
+        for (int r = 0; r < results.size(); r++) {
+            json.append(r > 0 ? ",\n  {" : "\n  {");
+            final Object[] values = values(results.get(r), runs[r]);
+            for (int i = 0; i < values.length; i++) {
+                json.append(i > 0 ? ", " : "").append('"').append(COLUMNS[i]).append("\": ").append(values[i]);
+            }
+            json.append('}');
+        }
+        return json.append(results.isEmpty() ? "]\n" : "\n]\n").toString();
+    }
+
+    /**
+     * @return the number of every result among the results of its solver, counting from 1
+     */
+    private static int[] runs(List<Runner.Result> results) {
+        final Map<String, Integer> seen = new HashMap<>();
+        final int[] runs = new int[results.size()];
+        for (int r = 0; r < runs.length; r++) {
+            runs[r] = seen.merge(results.get(r).solver().name(), 1, Integer::sum);
+        }
+        return runs;
+    }
+
+    private static Object[] values(Runner.Result result, int run) {
+        final Solver<?> solver = result.solver();
+        final Metrics metrics = result.metrics();
+        return new Object[]{solver.year(), solver.day(), solver.part(), run, result.answer(), result.cached(),
+                result.parseNanos(), result.solveNanos(), metrics.parseBytes(), metrics.solveBytes(),
+                metrics.gcCount(), metrics.gcMillis(), metrics.peakHeapBytes()};
+    }
+}
@@ -0,0 +1,89 @@
+package com.outofmint;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.OptionalLong;
+
+/**
+ * Runs {@link Solver}s against their puzzle input and measures the parse and solve phases.
+ * <p>
+ * With an {@link AnswerCache}, answers already known for the same input and solver version are taken from the cache
+ * instead of running the solver.
+ */
+public final class Runner {
+
+    private final Path inputs;
+    private final AnswerCache cache;
+
+    /**
+     * @param inputs the directory holding the puzzle inputs, laid out as {@code <year>/day<day>.txt} or
+     *               {@code <year>/day<day>-input.txt}
+     */
+    public Runner(Path inputs) {
+        this(inputs, null);
+    }
+
+    /**
+     * @param cache the answer cache, {@code null} to always run the solvers
+     */
+    public Runner(Path inputs, AnswerCache cache) {
+        this.inputs = inputs;
+        this.cache = cache;
+    }
+
+    /**
+     * The answer of a single solver run together with the time spent in each phase and its {@link Metrics}, all zero
+     * for cached answers.
+     */
+    public record Result(Solver<?> solver, Path input, long answer, long parseNanos, long solveNanos,
+                         Metrics metrics, boolean cached) {
+    }
+
+    /**
+     * Resolves the puzzle input of the given solver.
+     *
+     * @throws IOException if there is no input for the solver's year and day
+     */
+    public Path input(Solver<?> solver) throws IOException {
+        final Path yearDir = inputs.resolve(Integer.toString(solver.year()));
+        for (String name : new String[]{"day" + solver.day() + ".txt", "day" + solver.day() + "-input.txt"}) {
+            final Path candidate = yearDir.resolve(name);
+            if (Files.isRegularFile(candidate)) {
+                return candidate;
+            }
+        }
+        throw new IOException("no input for " + solver.name() + " in " + yearDir);
+    }
+
+    public Result run(Solver<?> solver) throws IOException {
+        return run(solver, input(solver));
+    }
+
+    public <T> Result run(Solver<T> solver, Path input) throws IOException {
+        if (cache == null) {
+            return solve(solver, input);
+        }
+        final String key = cache.key(solver, input);
+        final OptionalLong cached = cache.get(key);
+        if (cached.isPresent()) {
+            return new Result(solver, input, cached.getAsLong(), 0, 0, Metrics.NONE, true);
+        }
+        final Result result = solve(solver, input);
+        cache.put(key, result.answer());
+        return result;
+    }
+
+    private static <T> Result solve(Solver<T> solver, Path input) throws IOException {
+        final Metrics.Probe probe = Metrics.start();
+        final long parseStart = System.nanoTime();
+        final T parsed = solver.parse(input);
+        final long parseNanos = System.nanoTime() - parseStart;
+        final long parseBytes = probe.phase();
+        final long solveStart = System.nanoTime();
+        final long answer = solver.solve(parsed);
+        final long solveNanos = System.nanoTime() - solveStart;
+        final Metrics metrics = probe.finish(parseBytes, probe.phase());
+        return new Result(solver, input, answer, parseNanos, solveNanos, metrics, false);
+    }
+}
@@ -0,0 +1,45 @@
+package com.outofmint;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * A solution for one part of an Advent of Code puzzle.
+ * <p>
+ * Solving is split into a parse phase, which turns the raw puzzle input into a solver specific model, and a solve
+ * phase, which computes the answer from that model. Keeping them apart lets the runner and the benchmarks time both
+ * phases separately.
+ * <p>
+ * Implementations are discovered through {@link java.util.ServiceLoader} and therefore need a public no-arg
+ * constructor and an entry in {@code META-INF/services/com.outofmint.Solver}.
+ *
+ * @param <T> the parsed input model
+ */
+public interface Solver<T> {
+
+    int year();
+
+    int day();
+
+    int part();
+
+    T parse(Path input) throws IOException;
+
+    long solve(T input);
+
+    default long solve(Path input) throws IOException {
+        return solve(parse(input));
+    }
+
+    /**
+     * @return the version of the solution, to be increased whenever a change may change its answers, so that
+     * {@linkplain AnswerCache cached answers} of earlier versions are not used
+     */
+    default int version() {
+        return 1;
+    }
+
+    default String name() {
+        return year() + "/" + day() + "/" + part();
+    }
+}
@@ -0,0 +1,54 @@
+package com.outofmint;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.ServiceLoader;
+
+/**
+ * Registry of all {@link Solver}s available on the class path.
+ */
+public final class Solvers {
+
+    private static final Comparator<Solver<?>> ORDER = Comparator.<Solver<?>>comparingInt(Solver::year)
+            .thenComparingInt(Solver::day)
+            .thenComparingInt(Solver::part);
+
+    private Solvers() {
+    }
+
+    /**
+     * @return all registered solvers ordered by year, day and part
+     */
+    public static List<Solver<?>> all() {
+        return ServiceLoader.load(Solver.class).stream()
+                .<Solver<?>>map(ServiceLoader.Provider::get)
+                .sorted(ORDER)
+                .toList();
+    }
+
+    /**
+     * Selects solvers by a selector of the form {@code year}, {@code year/day} or {@code year/day/part}.
+     *
+     * @param selector the selector, e.g. {@code 2023/5}
+     * @return the matching solvers ordered by year, day and part
+     */
+    public static List<Solver<?>> select(String selector) {
+        final String[] parts = selector.split("/");
+        if (parts.length > 3) {
+            throw new IllegalArgumentException("invalid selector " + selector + ", expected year[/day[/part]]");
+        }
+        final int[] key = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            try {
+                key[i] = Integer.parseInt(parts[i]);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("invalid selector " + selector + ", expected year[/day[/part]]", e);
+            }
+        }
+        return all().stream()
+                .filter(s -> s.year() == key[0])
+                .filter(s -> key.length < 2 || s.day() == key[1])
+                .filter(s -> key.length < 3 || s.part() == key[2])
+                .toList();
+    }
+}
@@ -0,0 +1,61 @@
+package com.outofmint;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The fork-join pool all solvers run their parallel work on.
+ * <p>
+ * The pool has one daemon worker per available processor, or as many as the system property {@value #PARALLELISM}
+ * asks for, and is created on first use. Sharing a single pool keeps solvers that run at the same time, e.g. in
+ * parallel tests, from starting more threads than there are cores, and keeps their work apart from other users of
+ * the common pool.
+ */
+public final class Workers {
+
+    /**
+     * The system property overriding the number of workers.
+     */
+    public static final String PARALLELISM = "aoc.parallelism";
+
+    private Workers() {
+    }
+
+    /**
+     * @return the shared pool
+     */
+    public static ForkJoinPool pool() {
+        return Holder.POOL;
+    }
+
+    /**
+     * @throws IllegalArgumentException if {@value #PARALLELISM} is not a positive number
+     */
+    static int parallelism() {
+        final String configured = System.getProperty(PARALLELISM);
+        if (configured == null) {
+            return Runtime.getRuntime().availableProcessors();
+        }
+        final int parallelism = Integer.parseInt(configured.trim());
+        if (parallelism < 1) {
+            throw new IllegalArgumentException(PARALLELISM + " must be positive, was " + parallelism);
+        }
+        return parallelism;
+    }
+
+    private static final class Holder {
+
+        private static final ForkJoinPool POOL = create();
+
+        private static ForkJoinPool create() {
+            final AtomicInteger ids = new AtomicInteger();
+            return new ForkJoinPool(parallelism(), pool -> {
+                final ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                thread.setName("aoc-worker-" + ids.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }, null, false);
+        }
+    }
+}
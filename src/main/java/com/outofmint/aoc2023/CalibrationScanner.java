@@ -0,0 +1,170 @@
+package com.outofmint.aoc2023;
+
+import com.outofmint.io.Input;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Queue;
+
+/**
+ * Finds the first and the last digit of a calibration line without regular expressions or substrings.
+ * <p>
+ * The first digit is found by walking forward from the start of the line and the last one by walking backward from
+ * its end, so both walks stop as soon as they hit a digit. Spelled digits are recognized by an Aho-Corasick
+ * automaton over {@code "one"} to {@code "nine"}, and by a second automaton over the reversed words for the backward
+ * walk.
+ * <p>
+ * Matches are packed into a {@code long} holding the start offset, the length and the value of the digit.
+ */
+final class CalibrationScanner {
+
+    private static final String[] WORDS = {"one", "two", "three", "four", "five", "six", "seven", "eight", "nine"};
+
+    static final long NO_MATCH = -1;
+
+    private static final Automaton FORWARD = Automaton.build(false);
+    private static final Automaton BACKWARD = Automaton.build(true);
+
+    private CalibrationScanner() {
+    }
+
+    /**
+     * Finds the first digit in {@code [from, to)}, stopping at the end of the line.
+     *
+     * @param words whether spelled digits count
+     * @return the packed match or {@link #NO_MATCH}
+     */
+    static long first(Input input, int from, int to, boolean words) {
+        int state = 0;
+        for (int i = from; i < to; i++) {
+            final byte b = input.get(i);
+            if (b >= '0' && b <= '9') {
+                return pack(i, 1, b - '0');
+            }
+            if (b == '\n') {
+                break;
+            }
+            if (words) {
+                state = FORWARD.step(state, b);
+                final int value = FORWARD.value[state];
+                if (value != 0) {
+                    final int length = WORDS[value - 1].length();
+                    return pack(i - length + 1, length, value);
+                }
+            }
+        }
+        return NO_MATCH;
+    }
+
+    /**
+     * Finds the last digit in {@code [from, to)}, walking backward from {@code to}.
+     *
+     * @param words whether spelled digits count
+     * @return the packed match or {@link #NO_MATCH}
+     */
+    static long last(Input input, int from, int to, boolean words) {
+        int state = 0;
+        for (int i = to - 1; i >= from; i--) {
+            final byte b = input.get(i);
+            if (b >= '0' && b <= '9') {
+                return pack(i, 1, b - '0');
+            }
+            if (words) {
+                state = BACKWARD.step(state, b);
+                final int value = BACKWARD.value[state];
+                if (value != 0) {
+                    return pack(i, WORDS[value - 1].length(), value);
+                }
+            }
+        }
+        return NO_MATCH;
+    }
+
+    static long pack(int start, int length, int value) {
+        return ((long) start << 8) | ((long) length << 4) | value;
+    }
+
+    static int start(long match) {
+        return (int) (match >>> 8);
+    }
+
+    static int end(long match) {
+        return start(match) + (int) ((match >>> 4) & 0xf);
+    }
+
+    static int value(long match) {
+        return (int) (match & 0xf);
+    }
+
+    /**
+     * A deterministic automaton over lower case letters; any other byte leads back to the root.
+     */
+    private static final class Automaton {
+
+        private static final int LETTERS = 26;
+
+        private final int[] next;
+        private final int[] value;
+
+        private Automaton(int[] next, int[] value) {
+            this.next = next;
+            this.value = value;
+        }
+
+        int step(int state, byte b) {
+            final int letter = b - 'a';
+            return letter >= 0 && letter < LETTERS ? next[state * LETTERS + letter] : 0;
+        }
+
+        static Automaton build(boolean reversed) {
+            int states = 1;
+            for (String word : WORDS) {
+                states += word.length();
+            }
+            final int[] next = new int[states * LETTERS];
+            final int[] value = new int[states];
+            final int[] fail = new int[states];
+            Arrays.fill(next, -1);
+            // trie
+            int count = 1;
+            for (int w = 0; w < WORDS.length; w++) {
+                final String word = reversed ? new StringBuilder(WORDS[w]).reverse().toString() : WORDS[w];
+                int state = 0;
+                for (int i = 0; i < word.length(); i++) {
+                    final int edge = state * LETTERS + word.charAt(i) - 'a';
+                    if (next[edge] < 0) {
+                        next[edge] = count++;
+                    }
+                    state = next[edge];
+                }
+                value[state] = w + 1;
+            }
+            // failure links in breadth first order, turning the trie into a complete transition table
+            final Queue<Integer> queue = new ArrayDeque<>();
+            for (int letter = 0; letter < LETTERS; letter++) {
+                if (next[letter] < 0) {
+                    next[letter] = 0;
+                } else {
+                    fail[next[letter]] = 0;
+                    queue.add(next[letter]);
+                }
+            }
+            while (!queue.isEmpty()) {
+                final int state = queue.remove();
+                if (value[state] == 0) {
+                    value[state] = value[fail[state]];
+                }
+                for (int letter = 0; letter < LETTERS; letter++) {
+                    final int edge = state * LETTERS + letter;
+                    if (next[edge] < 0) {
+                        next[edge] = next[fail[state] * LETTERS + letter];
+                    } else {
+                        fail[next[edge]] = next[fail[state] * LETTERS + letter];
+                        queue.add(next[edge]);
+                    }
+                }
+            }
+            return new Automaton(Arrays.copyOf(next, count * LETTERS), Arrays.copyOf(value, count));
+        }
+    }
+}
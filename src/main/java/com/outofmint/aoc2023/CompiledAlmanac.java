@@ -0,0 +1,172 @@
+package com.outofmint.aoc2023;
+
+import com.outofmint.Progress;
+import com.outofmint.Workers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * The almanac maps compiled into {@link PiecewiseMap}s, both per stage and composed into a single seed-to-location
+ * function, with batch operations that split the seeds across a fork-join pool.
+ * <p>
+ * The minimum searches add every batch of mapped seeds to a {@link Progress}, once per batch.
+ */
+public final class CompiledAlmanac {
+
+    /**
+     * Seeds below this count are mapped by a single task.
+     */
+    static final int BATCH_THRESHOLD = 1 << 14;
+
+    private final List<PiecewiseMap> stages;
+    private final PiecewiseMap seedToLocation;
+    private final ForkJoinPool pool;
+
+    private CompiledAlmanac(List<PiecewiseMap> stages, ForkJoinPool pool) {
+        this.stages = stages;
+        this.seedToLocation = PiecewiseMap.compose(stages);
+        this.pool = pool;
+    }
+
+    public static CompiledAlmanac compile(Day5.Almanac almanac) {
+        return compile(almanac, Workers.pool());
+    }
+
+    public static CompiledAlmanac compile(Day5.Almanac almanac, ForkJoinPool pool) {
+        final List<PiecewiseMap> stages = new ArrayList<>();
+        for (String stage : Day5.STAGES) {
+            final List<Long[]> ranges = almanac.mappings().get(stage);
+            if (ranges == null) {
+                throw new RuntimeException("almanac did not contain a " + stage);
+            }
+            stages.add(PiecewiseMap.compile(ranges));
+        }
+        return new CompiledAlmanac(List.copyOf(stages), pool);
+    }
+
+    /**
+     * Maps a seed through the composed seed-to-location function.
+     */
+    public long map(long seed) {
+        return seedToLocation.map(seed);
+    }
+
+    /**
+     * Maps a seed stage by stage, the reference for the composed function.
+     */
+    public long mapByStage(long seed) {
+        long value = seed;
+        for (PiecewiseMap stage : stages) {
+            value = stage.map(value);
+        }
+        return value;
+    }
+
+    public PiecewiseMap seedToLocation() {
+        return seedToLocation;
+    }
+
+    /**
+     * Maps all seeds in parallel.
+     *
+     * @return the locations, in the order of the seeds
+     */
+    public long[] mapAll(long[] seeds) {
+        final long[] locations = new long[seeds.length];
+        pool.invoke(new MapAll(seeds, locations, 0, seeds.length));
+        return locations;
+    }
+
+    /**
+     * @return the lowest location of the given seeds, {@link Long#MAX_VALUE} if there are none
+     */
+    public long minLocation(long[] seeds) {
+        return minLocation(seeds, Progress.NONE);
+    }
+
+    public long minLocation(long[] seeds, Progress progress) {
+        return pool.invoke(new MinLocation(seeds, 0, 0, seeds.length, progress));
+    }
+
+    /**
+     * Brute forces the lowest location of every seed in {@code [start, end)} in parallel without materializing the
+     * seeds.
+     *
+     * @return the lowest location, {@link Long#MAX_VALUE} if the range is empty
+     */
+    public long minLocation(long start, long end) {
+        return minLocation(start, end, Progress.NONE);
+    }
+
+    public long minLocation(long start, long end, Progress progress) {
+        return pool.invoke(new MinLocation(null, start, 0, Math.max(0, end - start), progress));
+    }
+
+    private final class MapAll extends RecursiveAction {
+
+        private final long[] seeds;
+        private final long[] locations;
+        private final int from;
+        private final int to;
+
+        MapAll(long[] seeds, long[] locations, int from, int to) {
+            this.seeds = seeds;
+            this.locations = locations;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= BATCH_THRESHOLD) {
+                for (int i = from; i < to; i++) {
+                    locations[i] = seedToLocation.map(seeds[i]);
+                }
+            } else {
+                final int mid = (from + to) >>> 1;
+                invokeAll(new MapAll(seeds, locations, from, mid), new MapAll(seeds, locations, mid, to));
+            }
+        }
+    }
+
+    /**
+     * Minimum over either {@code seeds[from, to)} or, without seeds, over the values {@code base + [from, to)}.
+     */
+    private final class MinLocation extends RecursiveTask<Long> {
+
+        private final long[] seeds;
+        private final long base;
+        private final long from;
+        private final long to;
+        private final Progress progress;
+
+        MinLocation(long[] seeds, long base, long from, long to, Progress progress) {
+            this.seeds = seeds;
+            this.base = base;
+            this.from = from;
+            this.to = to;
+            this.progress = progress;
+        }
+
+        @Override
+        protected Long compute() {
+            if (to - from <= BATCH_THRESHOLD) {
+                long min = Long.MAX_VALUE;
+                for (long i = from; i < to; i++) {
+                    min = Math.min(min, seedToLocation.map(seeds != null ? seeds[(int) i] : base + i));
+                }
+                progress.add(to - from);
+                return min;
+            }
+            final long mid = (from + to) >>> 1;
+            final MinLocation right = new MinLocation(seeds, base, mid, to, progress);
+            right.fork();
+            final long left = new MinLocation(seeds, base, from, mid, progress).compute();
+            return Math.min(left, right.join());
+        }
+    }
+}
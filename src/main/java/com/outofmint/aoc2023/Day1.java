@@ -0,0 +1,127 @@
+package com.outofmint.aoc2023;
+
+import com.outofmint.Solver;
+import com.outofmint.Workers;
+import com.outofmint.io.ChunkedLines;
+import com.outofmint.io.Cursor;
+import com.outofmint.io.Input;
+import com.outofmint.trace.TraceEvent;
+import com.outofmint.trace.Tracer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static com.outofmint.aoc2023.CalibrationScanner.NO_MATCH;
+
+/**
+ * Day 1: Trebuchet?!
+ */
+public final class Day1 {
+
+    private static final Logger log = LoggerFactory.getLogger(Day1.class);
+
+    private Day1() {
+    }
+
+    /**
+     * Sums the calibration values of all lines, each being the first and the last digit of the line.
+     *
+     * @param regions the {@linkplain Input#lineRegions(Path) line regions} of the document, summed one after another
+     * @param words   whether spelled digits count
+     */
+    static long checksum(List<Input> regions, boolean words) {
+        long calibrationValueChecksum = 0;
+        for (Input region : regions) {
+            calibrationValueChecksum += ChunkedLines.sum(region, line -> calibrationValue(line, words),
+                    Workers.pool());
+        }
+        log.debug("Calibration value checksum: {}", calibrationValueChecksum);
+        return calibrationValueChecksum;
+    }
+
+    private static long calibrationValue(Cursor line, boolean words) {
+        final Input input = line.input();
+        final int lineStart = line.position();
+        final int lineEnd = line.limit();
+        final long first = CalibrationScanner.first(input, lineStart, lineEnd, words);
+        if (first == NO_MATCH) {
+            throw new RuntimeException("line: " + input.string(lineStart, lineEnd)
+                    + "\n\tdid not contain calibration values");
+        }
+        final long last = CalibrationScanner.last(input, CalibrationScanner.start(first), lineEnd, words);
+        if (Tracer.enabled()) {
+            trace(input, lineStart, lineEnd, first, last);
+        }
+        return 10L * CalibrationScanner.value(first) + CalibrationScanner.value(last);
+    }
+
+    private static void trace(Input input, int lineStart, int lineEnd, long first, long last) {
+        final int firstStart = CalibrationScanner.start(first) - lineStart;
+        final int firstEnd = CalibrationScanner.end(first) - lineStart;
+        final int lastStart = CalibrationScanner.start(last) - lineStart;
+        final int lastEnd = CalibrationScanner.end(last) - lineStart;
+        final String line = input.string(lineStart, lineEnd);
+        Tracer.emit(firstEnd >= lastStart
+                ? new TraceEvent.Spans(line, firstStart, lastEnd)
+                : new TraceEvent.Spans(line, firstStart, firstEnd, lastStart, lastEnd));
+    }
+
+    public static final class Part1 implements Solver<List<Input>> {
+
+        @Override
+        public int year() {
+            return 2023;
+        }
+
+        @Override
+        public int day() {
+            return 1;
+        }
+
+        @Override
+        public int part() {
+            return 1;
+        }
+
+        @Override
+        public List<Input> parse(Path input) throws IOException {
+            return Input.lineRegions(input);
+        }
+
+        @Override
+        public long solve(List<Input> input) {
+            return checksum(input, false);
+        }
+    }
+
+    public static final class Part2 implements Solver<List<Input>> {
+
+        @Override
+        public int year() {
+            return 2023;
+        }
+
+        @Override
+        public int day() {
+            return 1;
+        }
+
+        @Override
+        public int part() {
+            return 2;
+        }
+
+        @Override
+        public List<Input> parse(Path input) throws IOException {
+            return Input.lineRegions(input);
+        }
+
+        @Override
+        public long solve(List<Input> input) {
+            return checksum(input, true);
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package com.outofmint.aoc2023;
+
+import com.outofmint.Solver;
+import com.outofmint.Workers;
+import com.outofmint.io.ChunkedLines;
+import com.outofmint.io.Cursor;
+import com.outofmint.io.Input;
+import com.outofmint.io.LineReducer;
+import com.outofmint.io.RecordFormat;
+import com.outofmint.trace.TraceEvent;
+import com.outofmint.trace.Tracer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Day 2: Cube Conundrum
+ */
+public final class Day2 {
+
+    private static final Logger log = LoggerFactory.getLogger(Day2.class);
+
+    static final int NUM_RED = 12;
+    static final int NUM_GREEN = 13;
+    static final int NUM_BLUE = 14;
+
+    /**
+     * A game with its sets of cubes, reporting the game id and then the count and color of every group of cubes.
+     */
+    private static final RecordFormat GAME =
+            RecordFormat.compile("Game {int}: ({int} {enum red|green|blue}(, )?(; )?)+");
+    private static final int GAME_ID = 0;
+    private static final int CUBE_COUNT = 1;
+    private static final int RED = 0;
+    private static final int GREEN = 1;
+    private static final int BLUE = 2;
+
+    private Day2() {
+    }
+
+    /**
+     * A game reduced to the maximum number of cubes of each color revealed in any of its sets.
+     */
+    public record Game(int id, int maxRed, int maxGreen, int maxBlue) {
+
+        boolean possible(int numRed, int numGreen, int numBlue) {
+            return maxRed <= numRed && maxGreen <= numGreen && maxBlue <= numBlue;
+        }
+
+        long power() {
+            return (long) maxRed * maxGreen * maxBlue;
+        }
+    }
+
+    static List<Game> parseGames(Path input) throws IOException {
+        return ChunkedLines.reduce(Input.map(input), LineReducer.<GameParser>of(
+                GameParser::new,
+                (parser, line) -> parser.add(line),
+                (earlier, later) -> {
+                    earlier.games.addAll(later.games);
+                    return earlier;
+                }), Workers.pool()).games;
+    }
+
+    /**
+     * Collects the games of a chunk, keeping the maximum count per color as the fields of a line come in.
+     */
+    private static final class GameParser implements RecordFormat.FieldSink {
+
+        private final List<Game> games = new ArrayList<>();
+        private final int[] max = new int[3];
+        private int id;
+        private int count;
+
+        GameParser add(Cursor line) {
+            id = 0;
+            Arrays.fill(max, 0);
+            if (log.isDebugEnabled()) {
+                log.debug("{}", line);
+            }
+            GAME.parse(line, this);
+            games.add(new Game(id, max[RED], max[GREEN], max[BLUE]));
+            return this;
+        }
+
+        @Override
+        public void field(int field, long value) {
+            switch (field) {
+                case GAME_ID -> id = (int) value;
+                case CUBE_COUNT -> count = (int) value;
+                default -> max[(int) value] = Math.max(max[(int) value], count);
+            }
+        }
+    }
+
+    /**
+     * Describes the verdict on a game, highlighting the colors exceeding their limit.
+     */
+    private static TraceEvent verdict(Game game, boolean possible) {
+        final StringBuilder text = new StringBuilder("Game ").append(game.id()).append(" max: ");
+        final int[] bounds = new int[8];
+        int spans = 0;
+        spans = appendCount(text, bounds, spans, game.maxRed(), NUM_RED, " red, ");
+        spans = appendCount(text, bounds, spans, game.maxGreen(), NUM_GREEN, " green, ");
+        spans = appendCount(text, bounds, spans, game.maxBlue(), NUM_BLUE, " blue -> ");
+        if (possible) {
+            text.append("possible");
+        } else {
+            bounds[spans++] = text.length();
+            text.append("impossible");
+            bounds[spans++] = text.length();
+        }
+        return new TraceEvent.Spans(text.toString(), Arrays.copyOf(bounds, spans));
+    }
+
+    private static int appendCount(StringBuilder text, int[] bounds, int spans, int current, int allowedMax,
+                                   String suffix) {
+        if (current > allowedMax) {
+            bounds[spans++] = text.length();
+            text.append(current).append(" (> ").append(allowedMax).append(')');
+            bounds[spans++] = text.length();
+        } else {
+            text.append(current);
+        }
+        text.append(suffix);
+        return spans;
+    }
+
+    public static final class Part1 implements Solver<List<Game>> {
+
+        @Override
+        public int year() {
+            return 2023;
+        }
+
+        @Override
+        public int day() {
+            return 2;
+        }
+
+        @Override
+        public int part() {
+            return 1;
+        }
+
+        @Override
+        public int version() {
+            return 2;
+        }
+
+        @Override
+        public List<Game> parse(Path input) throws IOException {
+            return parseGames(input);
+        }
+
+        @Override
+        public long solve(List<Game> games) {
+            long gameIdChecksum = 0;
+            for (Game game : games) {
+                boolean possible = game.possible(NUM_RED, NUM_GREEN, NUM_BLUE);
+                if (Tracer.enabled()) {
+                    Tracer.emit(verdict(game, possible));
+                }
+                if (possible) {
+                    gameIdChecksum += game.id();
+                }
+            }
+            return gameIdChecksum;
+        }
+    }
+
+    public static final class Part2 implements Solver<List<Game>> {
+
+        @Override
+        public int year() {
+            return 2023;
+        }
+
+        @Override
+        public int day() {
+            return 2;
+        }
+
+        @Override
+        public int part() {
+            return 2;
+        }
+
+        @Override
+        public int version() {
+            return 2;
+        }
+
+        @Override
+        public List<Game> parse(Path input) throws IOException {
+            return parseGames(input);
+        }
+
+        @Override
+        public long solve(List<Game> games) {
+            long powerOfCubesChecksum = 0;
+            for (Game game : games) {
+                powerOfCubesChecksum += game.power();
+            }
+            return powerOfCubesChecksum;
+        }
+    }
+}
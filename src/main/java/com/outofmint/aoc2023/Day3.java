@@ -0,0 +1,87 @@
+package com.outofmint.aoc2023;
+
+import com.outofmint.Solver;
+import com.outofmint.io.Cursor;
+import com.outofmint.io.Input;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Day 3: Gear Ratios
+ */
+public final class Day3 {
+
+    private Day3() {
+    }
+
+    /**
+     * Streams the rows of the engine schematic through a {@link SchematicIndexer}.
+     */
+    static SchematicIndexer scan(Input schematic) {
+        final SchematicIndexer indexer = new SchematicIndexer();
+        final Cursor c = schematic.cursor();
+        final Cursor line = schematic.cursor();
+        while (c.hasRemaining()) {
+            indexer.accept(line.reset(c.position(), c.lineEnd()));
+            c.skipLine();
+        }
+        return indexer.finish();
+    }
+
+    public static final class Part1 implements Solver<Input> {
+
+        @Override
+        public int year() {
+            return 2023;
+        }
+
+        @Override
+        public int day() {
+            return 3;
+        }
+
+        @Override
+        public int part() {
+            return 1;
+        }
+
+        @Override
+        public Input parse(Path input) throws IOException {
+            return Input.map(input);
+        }
+
+        @Override
+        public long solve(Input schematic) {
+            return scan(schematic).partNumberSum();
+        }
+    }
+
+    public static final class Part2 implements Solver<Input> {
+
+        @Override
+        public int year() {
+            return 2023;
+        }
+
+        @Override
+        public int day() {
+            return 3;
+        }
+
+        @Override
+        public int part() {
+            return 2;
+        }
+
+        @Override
+        public Input parse(Path input) throws IOException {
+            return Input.map(input);
+        }
+
+        @Override
+        public long solve(Input schematic) {
+            return scan(schematic).gearRatioSum();
+        }
+    }
+}
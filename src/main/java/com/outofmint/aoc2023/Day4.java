@@ -0,0 +1,258 @@
+package com.outofmint.aoc2023;
+
+import com.outofmint.Solver;
+import com.outofmint.Workers;
+import com.outofmint.io.ChunkedLines;
+import com.outofmint.io.Cursor;
+import com.outofmint.io.Input;
+import com.outofmint.io.LineReducer;
+import com.outofmint.trace.TraceEvent;
+import com.outofmint.trace.Tracer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Day 4: Scratchcards
+ * <p>
+ * The cards are read from the mapped input in parallel {@linkplain ChunkedLines chunks}. The winning numbers and the
+ * numbers we have are each encoded as a 128-bit mask in two {@code long}s, so the matches of a card are a bit count of
+ * the intersection. A card wins copies of at most {@link #MAX_NUMBER} + 1 following cards, so the pending copies fit a
+ * ring buffer of that size no matter how many cards there are. Part 2 feeds the match counts of one chunk after the
+ * other through the ring buffer.
+ */
+public final class Day4 {
+
+    private static final Logger log = LoggerFactory.getLogger(Day4.class);
+
+    /**
+     * The largest number a card may hold.
+     */
+    static final int MAX_NUMBER = 127;
+
+    private static final int WINNING_LOW = 0;
+    private static final int WINNING_HIGH = 1;
+    private static final int MINE_LOW = 2;
+    private static final int MINE_HIGH = 3;
+
+    private Day4() {
+    }
+
+    /**
+     * Reads the card on the line into {@code masks}: the winning numbers into the first two {@code long}s, the numbers
+     * we have into the last two.
+     *
+     * @return the number of our numbers that are winning numbers
+     */
+    static int read(Cursor line, long[] masks) {
+        masks[WINNING_LOW] = 0;
+        masks[WINNING_HIGH] = 0;
+        masks[MINE_LOW] = 0;
+        masks[MINE_HIGH] = 0;
+        if (!line.skipTo((byte) ':')) {
+            throw new NumberFormatException("no card label in " + line);
+        }
+        line.skip(1);
+        int half = WINNING_LOW;
+        while (!line.skipSpaces().atEol()) {
+            if (line.match((byte) '|')) {
+                half = MINE_LOW;
+                continue;
+            }
+            final int number = line.nextInt();
+            if (number < 0 || number > MAX_NUMBER) {
+                throw new NumberFormatException("card number " + number + " out of range [0, " + MAX_NUMBER + "]");
+            }
+            masks[half + (number >>> 6)] |= 1L << number;
+        }
+        return Long.bitCount(masks[WINNING_LOW] & masks[MINE_LOW])
+                + Long.bitCount(masks[WINNING_HIGH] & masks[MINE_HIGH]);
+    }
+
+    /**
+     * The most matches a card may have in part 1, whose points {@code 2^(matches - 1)} must fit a {@code long}.
+     */
+    static final int MAX_SCORED_MATCHES = 63;
+
+    /**
+     * The points of a chunk of cards.
+     */
+    static final class Points {
+
+        private final long[] masks = new long[4];
+        private long sum;
+
+        Points add(Cursor line) {
+            final int matches = read(line, masks);
+            if (matches > MAX_SCORED_MATCHES) {
+                throw new ArithmeticException("a card with " + matches + " matches is worth more than "
+                        + Long.MAX_VALUE + " points");
+            }
+            sum = Math.addExact(sum, matches > 0 ? 1L << (matches - 1) : 0);
+            return this;
+        }
+
+        Points merge(Points later) {
+            sum = Math.addExact(sum, later.sum);
+            return this;
+        }
+    }
+
+    /**
+     * The match counts of a chunk of cards, each packed with the offset of the card's line as
+     * {@code start << 8 | matches}.
+     */
+    static final class Matches {
+
+        private final long[] masks = new long[4];
+        private long[] cards = new long[256];
+        private int count;
+
+        Matches add(Cursor line) {
+            final int start = line.position();
+            append((long) start << 8 | read(line, masks));
+            return this;
+        }
+
+        Matches merge(Matches later) {
+            for (int i = 0; i < later.count; i++) {
+                append(later.cards[i]);
+            }
+            return this;
+        }
+
+        private void append(long card) {
+            if (count == cards.length) {
+                cards = Arrays.copyOf(cards, 2 * count);
+            }
+            cards[count++] = card;
+        }
+    }
+
+    /**
+     * Lists the sorted numbers of the card, highlighting the matching ones.
+     */
+    private static TraceEvent describe(Input cards, int start, long copies) {
+        final long[] masks = new long[4];
+        read(cards.cursor(start, cards.cursor(start, cards.size()).lineEnd()), masks);
+        final StringBuilder text = new StringBuilder(cards.string(start, cards.indexOf((byte) ':', start, cards.size())))
+                .append(": ");
+        final List<Integer> bounds = new ArrayList<>();
+        appendNumbers(text, bounds, masks[WINNING_LOW], masks[WINNING_HIGH], masks);
+        text.append(" | ");
+        appendNumbers(text, bounds, masks[MINE_LOW], masks[MINE_HIGH], masks);
+        text.append(" => ").append(copies).append(" copies");
+        return new TraceEvent.Spans(text.toString(), bounds.stream().mapToInt(i -> i).toArray());
+    }
+
+    private static void appendNumbers(StringBuilder text, List<Integer> bounds, long low, long high, long[] masks) {
+        boolean first = true;
+        for (int number = 0; number <= MAX_NUMBER; number++) {
+            final long bit = 1L << number;
+            final int word = number >>> 6;
+            if (((word == 0 ? low : high) & bit) == 0) {
+                continue;
+            }
+            if (!first) {
+                text.append(' ');
+            }
+            first = false;
+            if (number < 10) {
+                text.append(' ');
+            }
+            final boolean match = (masks[WINNING_LOW + word] & masks[MINE_LOW + word] & bit) != 0;
+            if (match) {
+                bounds.add(text.length());
+            }
+            text.append(number);
+            if (match) {
+                bounds.add(text.length());
+            }
+        }
+    }
+
+    public static final class Part1 implements Solver<Input> {
+
+        @Override
+        public int year() {
+            return 2023;
+        }
+
+        @Override
+        public int day() {
+            return 4;
+        }
+
+        @Override
+        public int part() {
+            return 1;
+        }
+
+        @Override
+        public Input parse(Path input) throws IOException {
+            return Input.map(input);
+        }
+
+        @Override
+        public long solve(Input cards) {
+            return ChunkedLines.reduce(cards, LineReducer.of(Points::new, Points::add, Points::merge),
+                    Workers.pool()).sum;
+        }
+    }
+
+    public static final class Part2 implements Solver<Input> {
+
+        @Override
+        public int year() {
+            return 2023;
+        }
+
+        @Override
+        public int day() {
+            return 4;
+        }
+
+        @Override
+        public int part() {
+            return 2;
+        }
+
+        @Override
+        public Input parse(Path input) throws IOException {
+            return Input.map(input);
+        }
+
+        @Override
+        public long solve(Input cards) {
+            // pending[i % pending.length] holds the copies won so far of the i-th card from now
+            final long[] pending = new long[MAX_NUMBER + 2];
+            final long[] total = {0};
+            final int[] current = {0};
+            ChunkedLines.forEachOrdered(cards, LineReducer.of(Matches::new, Matches::add, Matches::merge), chunk -> {
+                for (int c = 0; c < chunk.count; c++) {
+                    final int matches = (int) (chunk.cards[c] & 0xFF);
+                    final int slot = current[0]++ % pending.length;
+                    final long copies = Math.addExact(pending[slot], 1);
+                    pending[slot] = 0;
+                    total[0] = Math.addExact(total[0], copies);
+                    if (Tracer.enabled()) {
+                        Tracer.emit(describe(cards, (int) (chunk.cards[c] >>> 8), copies));
+                    }
+                    if (log.isDebugEnabled()) {
+                        log.debug("  card {} total: {}", current[0], copies);
+                    }
+                    for (int i = 1; i <= matches; i++) {
+                        final int won = (slot + i) % pending.length;
+                        pending[won] = Math.addExact(pending[won], copies);
+                    }
+                }
+            }, Workers.pool());
+            return total[0];
+        }
+    }
+}
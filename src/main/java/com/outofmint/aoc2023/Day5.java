@@ -0,0 +1,187 @@
+package com.outofmint.aoc2023;
+
+import com.outofmint.Progress;
+import com.outofmint.Solver;
+import com.outofmint.io.Cursor;
+import com.outofmint.io.Input;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Day 5: If You Give A Seed A Fertilizer
+ */
+public final class Day5 {
+
+    private static final Logger log = LoggerFactory.getLogger(Day5.class);
+
+    /**
+     * The section maps in the order a seed is mapped through them.
+     */
+    static final List<String> STAGES = List.of(
+            "seed-to-soil map",
+            "soil-to-fertilizer map",
+            "fertilizer-to-water map",
+            "water-to-light map",
+            "light-to-temperature map",
+            "temperature-to-humidity map",
+            "humidity-to-location map"
+    );
+
+    /**
+     * Seed lists from this size on report their progress.
+     */
+    static final int TRACKED_SEEDS = 1 << 24;
+
+    private Day5() {
+    }
+
+    /**
+     * The parsed almanac: the seeds to be planted and the ranges of every section map, each range being
+     * {@code {destinationRangeStart, sourceRangeStart, rangeLength}}.
+     */
+    public record Almanac(List<Long> seeds, Map<String, List<Long[]>> mappings) {
+    }
+
+    static Almanac parseAlmanac(Path input) throws IOException {
+        final Input in = Input.map(input);
+        final Cursor c = in.cursor();
+        List<Long> seeds = null;
+        Map<String, List<Long[]>> mappings = new HashMap<>();
+        while (c.hasRemaining()) {
+            c.skipSpaces();
+            if (!c.atEol()) {
+                // handle section header
+                final int colon = in.indexOf((byte) ':', c.position(), c.lineEnd());
+                if (colon < c.lineEnd()) {
+                    final String section = in.string(c.position(), colon);
+                    c.position(colon + 1);
+                    switch (section) {
+                        case "seeds":
+                            seeds = new ArrayList<>();
+                            while (!c.skipSpaces().atEol()) {
+                                seeds.add(c.nextLong());
+                            }
+                            break;
+                        case "seed-to-soil map":
+                        case "soil-to-fertilizer map":
+                        case "fertilizer-to-water map":
+                        case "water-to-light map":
+                        case "light-to-temperature map":
+                        case "temperature-to-humidity map":
+                        case "humidity-to-location map":
+                            c.skipLine();
+                            handleMapping(mappings, section, c);
+                            continue;
+                        default:
+                            throw new RuntimeException("unknown section " + section);
+                    }
+                }
+            }
+            c.skipLine();
+        }
+        if (seeds == null) {
+            throw new RuntimeException("almanac did not contain any seeds");
+        }
+        return new Almanac(seeds, mappings);
+    }
+
+    /**
+     * Reads the ranges of a section map up to the next blank line, leaving the cursor behind it.
+     */
+    private static void handleMapping(Map<String, List<Long[]>> mappings, String section, Cursor c) {
+        final List<Long[]> ranges = new ArrayList<>();
+        while (c.hasRemaining() && !c.skipSpaces().atEol()) {
+            long destinationRangeStart = c.nextLong();
+            long sourceRangeStart = c.nextLong();
+            long rangeLength = c.nextLong();
+            ranges.add(new Long[]
+                    {destinationRangeStart, sourceRangeStart, rangeLength}
+            );
+            c.skipLine();
+        }
+        mappings.put(section, ranges);
+    }
+
+    public static final class Part1 implements Solver<Almanac> {
+
+        @Override
+        public int year() {
+            return 2023;
+        }
+
+        @Override
+        public int day() {
+            return 5;
+        }
+
+        @Override
+        public int part() {
+            return 1;
+        }
+
+        @Override
+        public Almanac parse(Path input) throws IOException {
+            return parseAlmanac(input);
+        }
+
+        @Override
+        public long solve(Almanac almanac) {
+            final long[] seeds = almanac.seeds().stream().mapToLong(Long::longValue).toArray();
+            log.debug("expected seed mappings: {}", seeds.length);
+            final CompiledAlmanac compiled = CompiledAlmanac.compile(almanac);
+            if (seeds.length < TRACKED_SEEDS) {
+                return compiled.minLocation(seeds);
+            }
+            try (Progress progress = Progress.start("mapping seeds", seeds.length)) {
+                return compiled.minLocation(seeds, progress);
+            }
+        }
+    }
+
+    /**
+     * Part 2 reads the seeds as pairs of range start and length and maps whole ranges with the
+     * {@link IntervalMapper}.
+     */
+    public static final class Part2 implements Solver<Almanac> {
+
+        @Override
+        public int year() {
+            return 2023;
+        }
+
+        @Override
+        public int day() {
+            return 5;
+        }
+
+        @Override
+        public int part() {
+            return 2;
+        }
+
+        @Override
+        public Almanac parse(Path input) throws IOException {
+            return parseAlmanac(input);
+        }
+
+        @Override
+        public long solve(Almanac almanac) {
+            final List<Long> seeds = almanac.seeds();
+            if (seeds.size() % 2 != 0) {
+                throw new RuntimeException("seed ranges must be pairs of start and length");
+            }
+            final List<long[]> seedRanges = new ArrayList<>();
+            for (int i = 0; i < seeds.size(); i += 2) {
+                seedRanges.add(new long[]{seeds.get(i), seeds.get(i) + seeds.get(i + 1)});
+            }
+            return IntervalMapper.minLocation(seedRanges, almanac.mappings());
+        }
+    }
+}
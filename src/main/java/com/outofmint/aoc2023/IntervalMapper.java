@@ -0,0 +1,102 @@
+package com.outofmint.aoc2023;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pushes whole half-open intervals {@code [start, end)} through the almanac maps instead of single values.
+ * <p>
+ * Every stage splits the incoming intervals at the source range boundaries of its map, shifts the covered pieces by
+ * the range offset and passes uncovered pieces through unchanged. Adjacent and overlapping results are merged before
+ * the next stage, so the work depends on the number of ranges only and not on the number of values in them.
+ */
+public final class IntervalMapper {
+
+    private IntervalMapper() {
+    }
+
+    /**
+     * Maps the given intervals through all stages of the almanac.
+     *
+     * @param intervals the seed intervals as {@code {start, end}} pairs, {@code end} being exclusive
+     * @param mappings  the section maps of the almanac as parsed by {@link Day5}
+     * @return the resulting location intervals, sorted and merged
+     */
+    public static List<long[]> mapAll(List<long[]> intervals, Map<String, List<Long[]>> mappings) {
+        List<long[]> current = merge(intervals);
+        for (String stage : Day5.STAGES) {
+            current = map(current, mappings.get(stage));
+        }
+        return current;
+    }
+
+    /**
+     * @return the lowest location of any seed in the given intervals, {@link Long#MAX_VALUE} if they are empty
+     */
+    public static long minLocation(List<long[]> intervals, Map<String, List<Long[]>> mappings) {
+        final List<long[]> locations = mapAll(intervals, mappings);
+        return locations.isEmpty() ? Long.MAX_VALUE : locations.get(0)[0];
+    }
+
+    /**
+     * Maps sorted, non-overlapping intervals through a single stage.
+     */
+    static List<long[]> map(List<long[]> intervals, List<Long[]> ranges) {
+        // sort by source range start
+        final List<Long[]> sortedRanges = ranges.stream().sorted(Comparator.comparing(r -> r[1])).toList();
+        final List<long[]> mapped = new ArrayList<>();
+        for (long[] interval : intervals) {
+            long start = interval[0];
+            final long end = interval[1];
+            for (Long[] range : sortedRanges) {
+                final long sourceRangeStart = range[1];
+                final long sourceRangeEnd = range[1] + range[2];
+                final long destinationOffset = range[0] - range[1];
+                if (end <= sourceRangeStart) {
+                    break;
+                }
+                if (start >= sourceRangeEnd) {
+                    continue;
+                }
+                if (start < sourceRangeStart) {
+                    // gap before the range maps to itself
+                    mapped.add(new long[]{start, sourceRangeStart});
+                    start = sourceRangeStart;
+                }
+                final long coveredEnd = Math.min(end, sourceRangeEnd);
+                mapped.add(new long[]{start + destinationOffset, coveredEnd + destinationOffset});
+                start = coveredEnd;
+                if (start >= end) {
+                    break;
+                }
+            }
+            if (start < end) {
+                mapped.add(new long[]{start, end});
+            }
+        }
+        return merge(mapped);
+    }
+
+    /**
+     * Sorts the intervals by start and merges overlapping and adjacent ones, dropping empty intervals.
+     */
+    static List<long[]> merge(List<long[]> intervals) {
+        final List<long[]> sorted = intervals.stream()
+                .filter(i -> i[0] < i[1])
+                .sorted(Comparator.comparingLong(i -> i[0]))
+                .toList();
+        final List<long[]> merged = new ArrayList<>();
+        long[] last = null;
+        for (long[] interval : sorted) {
+            if (last != null && interval[0] <= last[1]) {
+                last[1] = Math.max(last[1], interval[1]);
+            } else {
+                last = new long[]{interval[0], interval[1]};
+                merged.add(last);
+            }
+        }
+        return merged;
+    }
+}
@@ -0,0 +1,140 @@
+package com.outofmint.aoc2023;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A compiled almanac map: a piecewise function {@code x -> x + offset} over all {@code long} values.
+ * <p>
+ * Segment {@code i} covers {@code [starts[i], starts[i + 1])} and shifts values by {@code offsets[i]}; the gaps
+ * between the ranges of the almanac are stored as segments with offset {@code 0}, so a lookup is a single binary
+ * search over a primitive array.
+ */
+public final class PiecewiseMap {
+
+    private static final PiecewiseMap IDENTITY = new PiecewiseMap(new long[]{Long.MIN_VALUE}, new long[]{0});
+
+    private final long[] starts;
+    private final long[] offsets;
+
+    private PiecewiseMap(long[] starts, long[] offsets) {
+        this.starts = starts;
+        this.offsets = offsets;
+    }
+
+    /**
+     * Compiles the ranges of one almanac section, each being {@code {destinationRangeStart, sourceRangeStart,
+     * rangeLength}}. Where ranges overlap, the one starting first wins.
+     */
+    public static PiecewiseMap compile(List<Long[]> ranges) {
+        // sort by source range start
+        final List<Long[]> sortedRanges = ranges.stream().sorted(Comparator.comparing(r -> r[1])).toList();
+        final long[] starts = new long[2 * sortedRanges.size() + 1];
+        final long[] offsets = new long[starts.length];
+        int segments = 0;
+        starts[segments] = Long.MIN_VALUE;
+        offsets[segments++] = 0;
+        long covered = Long.MIN_VALUE;
+        for (Long[] range : sortedRanges) {
+            final long sourceRangeStart = Math.max(range[1], covered);
+            final long sourceRangeEnd = range[1] + range[2];
+            if (sourceRangeStart >= sourceRangeEnd) {
+                continue;
+            }
+            starts[segments] = sourceRangeStart;
+            offsets[segments++] = range[0] - range[1];
+            starts[segments] = sourceRangeEnd;
+            offsets[segments++] = 0;
+            covered = sourceRangeEnd;
+        }
+        return normalize(starts, offsets, segments);
+    }
+
+    public static PiecewiseMap identity() {
+        return IDENTITY;
+    }
+
+    /**
+     * Composes the given maps into a single map applying them in list order.
+     */
+    public static PiecewiseMap compose(List<PiecewiseMap> maps) {
+        PiecewiseMap composed = IDENTITY;
+        for (PiecewiseMap map : maps) {
+            composed = composed.andThen(map);
+        }
+        return composed;
+    }
+
+    public long map(long value) {
+        return value + offsets[segment(value)];
+    }
+
+    /**
+     * @return the map applying this map first and {@code next} to its result
+     */
+    public PiecewiseMap andThen(PiecewiseMap next) {
+        long[] starts = new long[this.starts.length + next.starts.length];
+        long[] offsets = new long[starts.length];
+        int segments = 0;
+        for (int i = 0; i < this.starts.length; i++) {
+            final long offset = this.offsets[i];
+            final long start = this.starts[i];
+            // the unbounded first and last segments of every map have offset 0, so none of this overflows
+            final long end = i + 1 == this.starts.length ? Long.MAX_VALUE : this.starts[i + 1];
+            int j = next.segment(start + offset);
+            long from = start;
+            while (true) {
+                if (segments == starts.length) {
+                    starts = Arrays.copyOf(starts, 2 * segments);
+                    offsets = Arrays.copyOf(offsets, 2 * segments);
+                }
+                starts[segments] = from;
+                offsets[segments++] = offset + next.offsets[j];
+                if (j + 1 == next.starts.length) {
+                    break;
+                }
+                // next breakpoint in the source domain of this segment
+                final long boundary = next.starts[j + 1] - offset;
+                if (boundary >= end) {
+                    break;
+                }
+                from = boundary;
+                j++;
+            }
+        }
+        return normalize(starts, offsets, segments);
+    }
+
+    /**
+     * @return the number of segments including the identity gaps
+     */
+    public int segments() {
+        return starts.length;
+    }
+
+    private int segment(long value) {
+        final int index = Arrays.binarySearch(starts, value);
+        return index >= 0 ? index : -index - 2;
+    }
+
+    /**
+     * Drops empty segments and merges neighbours with the same offset.
+     */
+    private static PiecewiseMap normalize(long[] starts, long[] offsets, int segments) {
+        final long[] normalizedStarts = new long[segments];
+        final long[] normalizedOffsets = new long[segments];
+        int n = 0;
+        for (int i = 0; i < segments; i++) {
+            if (n > 0 && normalizedStarts[n - 1] == starts[i]) {
+                n--;
+            }
+            if (n > 0 && normalizedOffsets[n - 1] == offsets[i]) {
+                continue;
+            }
+            normalizedStarts[n] = starts[i];
+            normalizedOffsets[n++] = offsets[i];
+        }
+        return new PiecewiseMap(Arrays.copyOf(normalizedStarts, n), Arrays.copyOf(normalizedOffsets, n));
+    }
+}
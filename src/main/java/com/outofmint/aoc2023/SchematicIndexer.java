@@ -0,0 +1,181 @@
+package com.outofmint.aoc2023;
+
+import com.outofmint.io.Cursor;
+
+import java.util.Arrays;
+
+/**
+ * Sums the part numbers and gear ratios of an engine schematic in a single pass over its rows.
+ * <p>
+ * Every row is tokenized once into the spans of its numbers and the columns of its symbols, both sorted by column.
+ * Only the last three rows are kept, in a ring buffer whose arrays are reused, so memory depends on the length of a
+ * row but not on the number of rows. A row is resolved as soon as the row below it is known: each of its numbers is
+ * checked against the symbols of the three rows, and each of its gears against the numbers of the three rows, by
+ * merging the sorted lists. Numbers are counted once, however many symbols they touch.
+ */
+final class SchematicIndexer {
+
+    private final Row[] rows = {new Row(), new Row(), new Row()};
+    private final Gear gear = new Gear();
+    private final int[] from = new int[3];
+    private int count;
+    private long partNumberSum;
+    private long gearRatioSum;
+
+    /**
+     * Tokenizes the next row, from the cursor to its limit, and resolves the row above it.
+     */
+    void accept(Cursor line) {
+        rows[count % 3].tokenize(line);
+        count++;
+        if (count >= 2) {
+            resolve(count - 2, rows[(count - 1) % 3]);
+        }
+    }
+
+    /**
+     * Resolves the last row, which has no row below it.
+     */
+    SchematicIndexer finish() {
+        if (count >= 1) {
+            resolve(count - 1, null);
+        }
+        return this;
+    }
+
+    long partNumberSum() {
+        return partNumberSum;
+    }
+
+    long gearRatioSum() {
+        return gearRatioSum;
+    }
+
+    private void resolve(int index, Row below) {
+        final Row row = rows[index % 3];
+        final Row above = index > 0 ? rows[(index - 1) % 3] : null;
+        Arrays.fill(row.isPart, 0, row.numbers, false);
+        row.markParts(above);
+        row.markParts(row);
+        row.markParts(below);
+        for (int n = 0; n < row.numbers; n++) {
+            if (row.isPart[n]) {
+                partNumberSum += row.values[n];
+            }
+        }
+        Arrays.fill(from, 0);
+        for (int s = 0; s < row.symbols; s++) {
+            if (!row.gear[s]) {
+                continue;
+            }
+            gear.reset();
+            gear.collect(above, row.columns[s], from, 0);
+            gear.collect(row, row.columns[s], from, 1);
+            gear.collect(below, row.columns[s], from, 2);
+            if (gear.numbers == 2) {
+                gearRatioSum += gear.ratio;
+            }
+        }
+    }
+
+    private static final class Gear {
+
+        private int numbers;
+        private long ratio;
+
+        void reset() {
+            numbers = 0;
+            ratio = 1;
+        }
+
+        /**
+         * Multiplies in the numbers of {@code row} adjacent to the gear in {@code column}, starting from the number
+         * {@code from[slot]}, which is moved past the numbers that end left of the gear.
+         */
+        void collect(Row row, int column, int[] from, int slot) {
+            if (row == null) {
+                return;
+            }
+            int n = from[slot];
+            while (n < row.numbers && row.ends[n] < column) {
+                n++;
+            }
+            from[slot] = n;
+            for (; n < row.numbers && row.starts[n] <= column + 1; n++) {
+                numbers++;
+                ratio *= row.values[n];
+            }
+        }
+    }
+
+    private static final class Row {
+
+        private int numbers;
+        private int[] starts = new int[16];
+        private int[] ends = new int[16];
+        private long[] values = new long[16];
+        private boolean[] isPart = new boolean[16];
+
+        private int symbols;
+        private int[] columns = new int[16];
+        private boolean[] gear = new boolean[16];
+
+        void tokenize(Cursor line) {
+            numbers = 0;
+            symbols = 0;
+            final int start = line.position();
+            while (line.hasRemaining()) {
+                final int column = line.position() - start;
+                if (line.atDigit()) {
+                    final long value = line.nextDigits();
+                    addNumber(column, line.position() - start, value);
+                } else {
+                    final byte b = line.next();
+                    if (b != '.' && b != '\r') {
+                        addSymbol(column, b == '*');
+                    }
+                }
+            }
+        }
+
+        private void addNumber(int start, int end, long value) {
+            if (numbers == starts.length) {
+                starts = Arrays.copyOf(starts, 2 * numbers);
+                ends = Arrays.copyOf(ends, 2 * numbers);
+                values = Arrays.copyOf(values, 2 * numbers);
+                isPart = Arrays.copyOf(isPart, 2 * numbers);
+            }
+            starts[numbers] = start;
+            ends[numbers] = end;
+            values[numbers++] = value;
+        }
+
+        private void addSymbol(int column, boolean isGear) {
+            if (symbols == columns.length) {
+                columns = Arrays.copyOf(columns, 2 * symbols);
+                gear = Arrays.copyOf(gear, 2 * symbols);
+            }
+            columns[symbols] = column;
+            gear[symbols++] = isGear;
+        }
+
+        /**
+         * Marks the numbers of this row that touch a symbol of {@code other}, a number spanning {@code [start, end)}
+         * touching the columns {@code start - 1} to {@code end}.
+         */
+        void markParts(Row other) {
+            if (other == null) {
+                return;
+            }
+            int s = 0;
+            for (int n = 0; n < numbers; n++) {
+                while (s < other.symbols && other.columns[s] < starts[n] - 1) {
+                    s++;
+                }
+                if (s < other.symbols && other.columns[s] <= ends[n]) {
+                    isPart[n] = true;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.outofmint.aoc2024;
+
+import com.outofmint.Solver;
+import com.outofmint.Workers;
+import com.outofmint.io.ChunkedLines;
+import com.outofmint.io.Cursor;
+import com.outofmint.io.Input;
+import com.outofmint.io.LineReducer;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Day 1: Historian Hysteria
+ * <p>
+ * Both columns are parsed in parallel chunks into {@code int} arrays and sorted with an LSD radix sort. Equal ids then
+ * form runs in both sorted arrays, so the similarity score is a single merge-style walk over the two arrays.
+ */
+public final class Day1 {
+
+    private static final int RADIX_BITS = 8;
+    private static final int RADIX = 1 << RADIX_BITS;
+
+    private Day1() {
+    }
+
+    /**
+     * The two location id lists, the left and the right column of the input.
+     */
+    public record LocationLists(int[] left, int[] right) {
+    }
+
+    static LocationLists parseLists(Path input) throws IOException {
+        final Columns columns = ChunkedLines.reduce(Input.map(input),
+                LineReducer.of(Columns::new, Columns::add, Columns::append), Workers.pool());
+        return new LocationLists(Arrays.copyOf(columns.left, columns.size), Arrays.copyOf(columns.right, columns.size));
+    }
+
+    /**
+     * The two columns of a chunk of lines.
+     */
+    private static final class Columns {
+
+        private int[] left = new int[1024];
+        private int[] right = new int[1024];
+        private int size;
+
+        Columns add(Cursor line) {
+            ensureCapacity(size + 1);
+            left[size] = line.nextInt();
+            right[size++] = line.nextInt();
+            return this;
+        }
+
+        Columns append(Columns later) {
+            ensureCapacity(size + later.size);
+            System.arraycopy(later.left, 0, left, size, later.size);
+            System.arraycopy(later.right, 0, right, size, later.size);
+            size += later.size;
+            return this;
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (capacity > left.length) {
+                final int length = Math.max(capacity, 2 * left.length);
+                left = Arrays.copyOf(left, length);
+                right = Arrays.copyOf(right, length);
+            }
+        }
+    }
+
+    /**
+     * @return a sorted copy of {@code values}, sorted with an LSD radix sort on bytes that skips the bytes all values
+     * share
+     */
+    static int[] sorted(int[] values) {
+        int[] from = values.clone();
+        int[] to = new int[values.length];
+        final int[] counts = new int[RADIX];
+        for (int shift = 0; shift < Integer.SIZE; shift += RADIX_BITS) {
+            // flipping the sign bit orders negative values before positive ones
+            final int flip = shift + RADIX_BITS == Integer.SIZE ? RADIX >>> 1 : 0;
+            Arrays.fill(counts, 0);
+            for (int value : from) {
+                counts[((value >>> shift) & (RADIX - 1)) ^ flip]++;
+            }
+            if (from.length == 0 || counts[((from[0] >>> shift) & (RADIX - 1)) ^ flip] == from.length) {
+                continue;
+            }
+            for (int b = 0, offset = 0; b < RADIX; b++) {
+                final int count = counts[b];
+                counts[b] = offset;
+                offset += count;
+            }
+            for (int value : from) {
+                to[counts[((value >>> shift) & (RADIX - 1)) ^ flip]++] = value;
+            }
+            final int[] swap = from;
+            from = to;
+            to = swap;
+        }
+        return from;
+    }
+
+    /**
+     * @return the sum of the distances between the pairs of ids at the same index of both sorted lists
+     */
+    static long distance(int[] left, int[] right) {
+        long distance = 0;
+        for (int i = 0; i < left.length; i++) {
+            distance += Math.abs((long) left[i] - right[i]);
+        }
+        return distance;
+    }
+
+    /**
+     * @return the sum of each id in the left list times the number of times it appears in the right list, walking
+     * the runs of equal ids in both sorted lists
+     */
+    static long similarity(int[] left, int[] right) {
+        long similarity = 0;
+        int i = 0;
+        int j = 0;
+        while (i < left.length && j < right.length) {
+            final int id = left[i];
+            if (id < right[j]) {
+                i++;
+            } else if (id > right[j]) {
+                j++;
+            } else {
+                final int leftStart = i;
+                final int rightStart = j;
+                while (i < left.length && left[i] == id) {
+                    i++;
+                }
+                while (j < right.length && right[j] == id) {
+                    j++;
+                }
+                similarity += (long) id * (i - leftStart) * (j - rightStart);
+            }
+        }
+        return similarity;
+    }
+
+    public static final class Part1 implements Solver<LocationLists> {
+
+        @Override
+        public int year() {
+            return 2024;
+        }
+
+        @Override
+        public int day() {
+            return 1;
+        }
+
+        @Override
+        public int part() {
+            return 1;
+        }
+
+        @Override
+        public LocationLists parse(Path input) throws IOException {
+            return parseLists(input);
+        }
+
+        @Override
+        public long solve(LocationLists lists) {
+            return distance(sorted(lists.left()), sorted(lists.right()));
+        }
+    }
+
+    public static final class Part2 implements Solver<LocationLists> {
+
+        @Override
+        public int year() {
+            return 2024;
+        }
+
+        @Override
+        public int day() {
+            return 1;
+        }
+
+        @Override
+        public int part() {
+            return 2;
+        }
+
+        @Override
+        public LocationLists parse(Path input) throws IOException {
+            return parseLists(input);
+        }
+
+        @Override
+        public long solve(LocationLists lists) {
+            return similarity(sorted(lists.left()), sorted(lists.right()));
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.outofmint.aoc2024;
+
+import com.outofmint.Solver;
+import com.outofmint.Workers;
+import com.outofmint.io.ChunkedLines;
+import com.outofmint.io.Cursor;
+import com.outofmint.io.Input;
+import com.outofmint.io.LineReducer;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Day 2: Red-Nosed Reports
+ * <p>
+ * Both parts parse the input the same way, in parallel {@linkplain ChunkedLines chunks}, into the levels of all
+ * reports back to back in a single {@code int} array, and count the reports a {@link ReportValidator} accepts with
+ * their own tolerance. The validator stops at the first level that decides a report.
+ */
+public final class Day2 {
+
+    private Day2() {
+    }
+
+    /**
+     * The levels of all reports, report {@code r} being {@code levels[starts[r]]} up to {@code levels[starts[r + 1]]}.
+     */
+    public record Reports(int[] levels, int[] starts) {
+
+        public int count() {
+            return starts.length - 1;
+        }
+    }
+
+    static Reports parseReports(Path input) throws IOException {
+        final Levels levels = ChunkedLines.reduce(Input.map(input),
+                LineReducer.of(Levels::new, Levels::add, Levels::append), Workers.pool());
+        return new Reports(Arrays.copyOf(levels.levels, levels.size),
+                Arrays.copyOf(levels.starts, levels.count + 1));
+    }
+
+    /**
+     * The levels of the reports of a chunk of lines.
+     */
+    private static final class Levels {
+
+        private int[] levels = new int[4096];
+        private int size;
+        private int[] starts = new int[1024];
+        private int count;
+
+        Levels add(Cursor report) {
+            while (!report.skipSpaces().atEol()) {
+                if (size == levels.length) {
+                    levels = Arrays.copyOf(levels, 2 * size);
+                }
+                levels[size++] = report.nextInt();
+            }
+            if (count + 1 == starts.length) {
+                starts = Arrays.copyOf(starts, 2 * starts.length);
+            }
+            starts[++count] = size;
+            return this;
+        }
+
+        Levels append(Levels later) {
+            if (size + later.size > levels.length) {
+                levels = Arrays.copyOf(levels, Math.max(size + later.size, 2 * levels.length));
+            }
+            if (count + later.count + 1 > starts.length) {
+                starts = Arrays.copyOf(starts, Math.max(count + later.count + 1, 2 * starts.length));
+            }
+            System.arraycopy(later.levels, 0, levels, size, later.size);
+            for (int r = 1; r <= later.count; r++) {
+                starts[count + r] = size + later.starts[r];
+            }
+            size += later.size;
+            count += later.count;
+            return this;
+        }
+    }
+
+    /**
+     * @return the number of reports that are safe after removing at most {@code tolerance} levels
+     */
+    static long countSafe(Reports reports, int tolerance) {
+        final ReportValidator validator = new ReportValidator(tolerance);
+        long safe = 0;
+        for (int r = 0; r < reports.count(); r++) {
+            safe += validator.safe(reports.levels(), reports.starts()[r], reports.starts()[r + 1]) ? 1 : 0;
+        }
+        return safe;
+    }
+
+    public static final class Part1 implements Solver<Reports> {
+
+        @Override
+        public int year() {
+            return 2024;
+        }
+
+        @Override
+        public int day() {
+            return 2;
+        }
+
+        @Override
+        public int part() {
+            return 1;
+        }
+
+        @Override
+        public Reports parse(Path input) throws IOException {
+            return parseReports(input);
+        }
+
+        @Override
+        public long solve(Reports reports) {
+            return countSafe(reports, 0);
+        }
+    }
+
+    public static final class Part2 implements Solver<Reports> {
+
+        @Override
+        public int year() {
+            return 2024;
+        }
+
+        @Override
+        public int day() {
+            return 2;
+        }
+
+        @Override
+        public int part() {
+            return 2;
+        }
+
+        @Override
+        public Reports parse(Path input) throws IOException {
+            return parseReports(input);
+        }
+
+        @Override
+        public long solve(Reports reports) {
+            return countSafe(reports, 1);
+        }
+    }
+}
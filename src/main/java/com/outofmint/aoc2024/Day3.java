@@ -0,0 +1,233 @@
+package com.outofmint.aoc2024;
+
+import com.outofmint.Solver;
+import com.outofmint.Workers;
+import com.outofmint.io.Cursor;
+import com.outofmint.io.Input;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Day 3: Mull It Over
+ * <p>
+ * The corrupted memory is scanned byte by byte for {@code mul(a,b)}, {@code do()} and {@code don't()}. None of these
+ * instructions can start inside another one, so a chunk of the memory can be scanned on its own, taking every
+ * instruction that starts in the chunk even if it ends behind it. Every chunk is condensed into a {@link Summary}
+ * that does not depend on the enabled state at its start, and summaries combine associatively, so the chunks are
+ * scanned in parallel and merged in any grouping. Memory larger than 2 GiB is mapped as several
+ * {@linkplain Input#regions(Path, int) regions}, each overlapping the next by enough bytes to finish an instruction
+ * starting at its end, and the regions are scanned one after another.
+ */
+public final class Day3 {
+
+    /**
+     * Inputs up to this size are scanned as a single chunk.
+     */
+    static final int CHUNK_SIZE = 1 << 20;
+
+    /**
+     * The operands of {@code mul} have one to three digits; {@code mul(1234,5)} is no instruction.
+     */
+    static final int MAX_OPERAND_DIGITS = 3;
+
+    /**
+     * The bytes read to match an instruction, at most those of {@code mul(123,456)}.
+     */
+    static final int LONGEST_INSTRUCTION = "mul(123,456)".length();
+
+    private static final byte[] MUL = "mul(".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] DO = "do()".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] DONT = "don't()".getBytes(StandardCharsets.US_ASCII);
+
+    private static final byte NO_TOGGLE = 0;
+    private static final byte ENABLE = 1;
+    private static final byte DISABLE = 2;
+
+    private Day3() {
+    }
+
+    /**
+     * The products of a chunk of memory.
+     *
+     * @param all          the sum of all products
+     * @param beforeToggle the sum of the products before the first {@code do()} or {@code don't()}, which count only
+     *                     if multiplication is enabled at the start of the chunk
+     * @param afterToggle  the sum of the enabled products after the first {@code do()} or {@code don't()}
+     * @param lastToggle   the last toggle in the chunk, if any
+     */
+    record Summary(long all, long beforeToggle, long afterToggle, byte lastToggle) {
+
+        static final Summary EMPTY = new Summary(0, 0, 0, NO_TOGGLE);
+
+        Summary andThen(Summary next) {
+            if (lastToggle == NO_TOGGLE) {
+                return new Summary(all + next.all, beforeToggle + next.beforeToggle, next.afterToggle,
+                        next.lastToggle);
+            }
+            return new Summary(all + next.all, beforeToggle,
+                    afterToggle + (lastToggle == ENABLE ? next.beforeToggle : 0) + next.afterToggle,
+                    next.lastToggle != NO_TOGGLE ? next.lastToggle : lastToggle);
+        }
+
+        /**
+         * @return the sum of the enabled products, multiplication being enabled at the start
+         */
+        long enabled() {
+            return beforeToggle + afterToggle;
+        }
+    }
+
+    /**
+     * Scans the instructions starting in {@code [from, to)}.
+     */
+    static Summary scan(Input input, int from, int to) {
+        final Cursor c = input.cursor();
+        long all = 0;
+        long beforeToggle = 0;
+        long afterToggle = 0;
+        byte lastToggle = NO_TOGGLE;
+        for (int i = from; i < to; i++) {
+            final byte b = input.get(i);
+            if (b == 'm') {
+                final long product = mul(c.position(i));
+                if (product >= 0) {
+                    all += product;
+                    if (lastToggle == NO_TOGGLE) {
+                        beforeToggle += product;
+                    } else if (lastToggle == ENABLE) {
+                        afterToggle += product;
+                    }
+                }
+            } else if (b == 'd') {
+                if (c.position(i).match(DO)) {
+                    lastToggle = ENABLE;
+                } else if (c.match(DONT)) {
+                    lastToggle = DISABLE;
+                }
+            }
+        }
+        return new Summary(all, beforeToggle, afterToggle, lastToggle);
+    }
+
+    /**
+     * @return the product of a {@code mul(a,b)} instruction at the cursor, {@code -1} if there is none
+     */
+    private static long mul(Cursor c) {
+        if (!c.match(MUL)) {
+            return -1;
+        }
+        final long a = c.nextDigits(MAX_OPERAND_DIGITS);
+        if (a < 0 || !c.match((byte) ',')) {
+            return -1;
+        }
+        final long b = c.nextDigits(MAX_OPERAND_DIGITS);
+        if (b < 0 || !c.match((byte) ')')) {
+            return -1;
+        }
+        return a * b;
+    }
+
+    /**
+     * Scans the instructions starting in the regions, in parallel chunks if a region is larger than
+     * {@link #CHUNK_SIZE}.
+     */
+    static Summary scan(List<Input.Region> regions, ForkJoinPool pool) {
+        Summary summary = Summary.EMPTY;
+        for (Input.Region region : regions) {
+            summary = summary.andThen(region.size() <= CHUNK_SIZE
+                    ? scan(region.input(), 0, region.size())
+                    : pool.invoke(new ScanTask(region.input(), 0, region.size())));
+        }
+        return summary;
+    }
+
+    static List<Input.Region> parse(Path input) throws IOException {
+        return Input.regions(input, LONGEST_INSTRUCTION - 1);
+    }
+
+    private static final class ScanTask extends RecursiveTask<Summary> {
+
+        private final Input input;
+        private final int from;
+        private final int to;
+
+        ScanTask(Input input, int from, int to) {
+            this.input = input;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Summary compute() {
+            if (to - from <= CHUNK_SIZE) {
+                return scan(input, from, to);
+            }
+            final int mid = from + (to - from) / 2;
+            final ScanTask right = new ScanTask(input, mid, to);
+            right.fork();
+            final Summary left = new ScanTask(input, from, mid).compute();
+            return left.andThen(right.join());
+        }
+    }
+
+    public static final class Part1 implements Solver<List<Input.Region>> {
+
+        @Override
+        public int year() {
+            return 2024;
+        }
+
+        @Override
+        public int day() {
+            return 3;
+        }
+
+        @Override
+        public int part() {
+            return 1;
+        }
+
+        @Override
+        public List<Input.Region> parse(Path input) throws IOException {
+            return Day3.parse(input);
+        }
+
+        @Override
+        public long solve(List<Input.Region> memory) {
+            return scan(memory, Workers.pool()).all();
+        }
+    }
+
+    public static final class Part2 implements Solver<List<Input.Region>> {
+
+        @Override
+        public int year() {
+            return 2024;
+        }
+
+        @Override
+        public int day() {
+            return 3;
+        }
+
+        @Override
+        public int part() {
+            return 2;
+        }
+
+        @Override
+        public List<Input.Region> parse(Path input) throws IOException {
+            return Day3.parse(input);
+        }
+
+        @Override
+        public long solve(List<Input.Region> memory) {
+            return scan(memory, Workers.pool()).enabled();
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.outofmint.aoc2024;
+
+import com.outofmint.Solver;
+import com.outofmint.Workers;
+import com.outofmint.grid.Direction;
+import com.outofmint.grid.Grid;
+import com.outofmint.grid.StripedScan;
+import com.outofmint.grid.WordSearch;
+import com.outofmint.io.Input;
+import com.outofmint.trace.TraceEvent;
+import com.outofmint.trace.Tracer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Day 4: Ceres Search
+ */
+public final class Day4 {
+
+    private static final Logger log = LoggerFactory.getLogger(Day4.class);
+
+    private Day4() {
+    }
+
+    /**
+     * Sentinel border wide enough for every search word to run off the grid without bounds checks.
+     */
+    static final int PADDING = 3;
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    static Grid parseWordSearch(Path input) throws IOException {
+        return Grid.parse(Input.map(input), PADDING, (byte) 0)
+                .replaceAll(Character::toLowerCase);
+    }
+
+    private static boolean findAdjacent(Grid input, int startRow, int startCol, String find, int dRow, int dCol) {
+        int findIndex = 0;
+        boolean found = false;
+        final int step = input.step(dRow, dCol);
+        for (int index = input.index(startRow, startCol); findIndex < find.length(); index += step) {
+            if (input.at(index) == find.charAt(findIndex++)) {
+                trace(input, input.rowOf(index), input.colOf(index), TraceEvent.Mark.MATCH);
+                if (findIndex == find.length()) {
+                    found = true;
+                    break;
+                }
+            } else {
+                break;
+            }
+        }
+        if (found) {
+            log.debug("### +1 ###");
+        }
+        return found;
+    }
+
+    private static void trace(Grid input, int row, int col, TraceEvent.Mark mark) {
+        if (Tracer.enabled()) {
+            Tracer.emit(new TraceEvent.Cell(input, row, col, mark));
+        }
+    }
+
+    /**
+     * Part 1 walks the word in every direction from every cell holding its first letter, which costs little more than
+     * reading the grid if those cells are rare. If a sample of the rows shows at least
+     * {@link #MIN_AUTOMATON_SHARE} of the cells starting the word, the words are counted with a {@link WordSearch}
+     * instead, which costs the same for every cell however many start the word. Traced runs always walk, so that the
+     * trace shows the cells visited.
+     */
+    public static final class Part1 implements Solver<Grid> {
+
+        private static final String SEARCH_STRING = "xmas";
+
+        private static final WordSearch SEARCH = WordSearch.of(SEARCH_STRING);
+
+        /**
+         * The share of cells starting the word from which the automaton beats the walk: on a 3000 x 3000 grid of the
+         * letters of the word, a quarter of the cells starting it, the walk takes 118 ms and the automaton 42 ms; on a
+         * 6000 x 6000 grid of all letters, 1.3% of the cells starting it, the walk takes 44 ms and the automaton 110.
+         */
+        static final double MIN_AUTOMATON_SHARE = 1.0 / 16;
+
+        private static final int SAMPLED_ROWS = 64;
+
+        @Override
+        public int year() {
+            return 2024;
+        }
+
+        @Override
+        public int day() {
+            return 4;
+        }
+
+        @Override
+        public int part() {
+            return 1;
+        }
+
+        @Override
+        public Grid parse(Path input) throws IOException {
+            return parseWordSearch(input);
+        }
+
+        @Override
+        public long solve(Grid input) {
+            if (Tracer.enabled() || startShare(input) < MIN_AUTOMATON_SHARE) {
+                return StripedScan.sum(input, 0, input.rows(), Part1::countRow, Workers.pool());
+            }
+            return SEARCH.count(input, Workers.pool());
+        }
+
+        /**
+         * @return the share of the cells holding the first letter of the word in up to {@link #SAMPLED_ROWS} evenly
+         * spaced rows
+         */
+        private static double startShare(Grid input) {
+            final int step = Math.max(1, input.rows() / SAMPLED_ROWS);
+            long cells = 0;
+            long starts = 0;
+            for (int row = 0; row < input.rows(); row += step) {
+                for (int col = 0; col < input.cols(); col++) {
+                    if (input.get(row, col) == SEARCH_STRING.charAt(0)) {
+                        starts++;
+                    }
+                }
+                cells += input.cols();
+            }
+            return cells > 0 ? (double) starts / cells : 0;
+        }
+
+        private static long countRow(Grid input, int row) {
+            final String searchString = SEARCH_STRING;
+            long xmasCount = 0;
+            for (int col = 0; col < input.cols(); col++) {
+                if (input.get(row, col) == searchString.charAt(0)) {
+                    trace(input, row, col, TraceEvent.Mark.CANDIDATE);
+                    for (Direction direction : DIRECTIONS) {
+                        if (findAdjacent(input, row, col, searchString, direction.dRow(), direction.dCol())) {
+                            xmasCount++;
+                        }
+                    }
+                } else {
+                    trace(input, row, col, TraceEvent.Mark.MISS);
+                }
+            }
+            return xmasCount;
+        }
+    }
+
+    public static final class Part2 implements Solver<Grid> {
+
+        private static final String SEARCH_STRING = "mas";
+
+        @Override
+        public int year() {
+            return 2024;
+        }
+
+        @Override
+        public int day() {
+            return 4;
+        }
+
+        @Override
+        public int part() {
+            return 2;
+        }
+
+        @Override
+        public Grid parse(Path input) throws IOException {
+            return parseWordSearch(input);
+        }
+
+        @Override
+        public long solve(Grid input) {
+            // we can skip row 0 and the last row for searching for 'a'
+            return StripedScan.sum(input, 1, input.rows() - 1, Part2::countRow, Workers.pool());
+        }
+
+        private static long countRow(Grid input, int row) {
+            final String searchString = SEARCH_STRING;
+            long xmasCount = 0;
+            for (int col = 0; col < input.cols(); col++) {
+                if (input.get(row, col) == searchString.charAt(1)) {
+                    trace(input, row, col, TraceEvent.Mark.CANDIDATE);
+                    if ((findAdjacent(input, row - 1, col - 1, searchString, 1, 1)
+                            || findAdjacent(input, row + 1, col + 1, searchString, -1, -1))
+                            && (findAdjacent(input, row + 1, col - 1, searchString, -1, 1)
+                            || findAdjacent(input, row - 1, col + 1, searchString, 1, -1))) {
+                        xmasCount++;
+                    }
+                } else {
+                    trace(input, row, col, TraceEvent.Mark.MISS);
+                }
+            }
+            return xmasCount;
+        }
+    }
+}
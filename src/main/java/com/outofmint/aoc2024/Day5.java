@@ -0,0 +1,179 @@
+package com.outofmint.aoc2024;
+
+import com.outofmint.Solver;
+import com.outofmint.Workers;
+import com.outofmint.io.ChunkedLines;
+import com.outofmint.io.Cursor;
+import com.outofmint.io.Input;
+import com.outofmint.io.LineReducer;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Day 5: Print Queue
+ * <p>
+ * The rules are compiled into a {@link RuleIndex} while parsing. The updates stay in the mapped input and are parsed
+ * and checked, or reordered, in parallel {@linkplain ChunkedLines chunks}, each chunk reusing a single page buffer and
+ * bitset.
+ */
+public final class Day5 {
+
+    private Day5() {
+    }
+
+    /**
+     * The compiled page ordering rules and the updates, which start at offset {@code updates} of the input.
+     */
+    public record PrintQueue(RuleIndex rules, Input input, int updates) {
+    }
+
+    static PrintQueue parsePrintQueue(Path path) throws IOException {
+        final Input input = Input.map(path);
+        final Cursor c = input.cursor();
+        int[] before = new int[256];
+        int[] after = new int[256];
+        int count = 0;
+        for (; c.hasRemaining() && !c.atEol(); c.skipLine()) {
+            if (count == before.length) {
+                before = Arrays.copyOf(before, 2 * count);
+                after = Arrays.copyOf(after, 2 * count);
+            }
+            before[count] = c.nextInt();
+            if (!c.match((byte) '|')) {
+                throw new NumberFormatException("expected '|' at " + c);
+            }
+            after[count++] = c.nextInt();
+        }
+        c.skipLine();
+        return new PrintQueue(RuleIndex.compile(before, after, count), input, c.position());
+    }
+
+    /**
+     * Parses the update at the cursor into {@code pages}, storing only as many pages as fit.
+     *
+     * @return the number of pages in the update, which may exceed {@code pages.length}
+     */
+    static int parseUpdate(Cursor c, int[] pages) {
+        int length = 0;
+        while (c.hasRemaining()) {
+            final int page = c.nextInt();
+            if (length < pages.length) {
+                pages[length] = page;
+            }
+            length++;
+            if (c.hasRemaining() && !c.match((byte) ',')) {
+                throw new NumberFormatException("expected ',' at " + c);
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Sums the middle pages of the updates of a chunk.
+     */
+    static final class Checksum {
+
+        private final RuleIndex rules;
+        private final boolean reordered;
+        private final long[] scratch;
+        private int[] pages = new int[64];
+        private long sum;
+
+        /**
+         * @param reordered {@code false} to sum the correctly-ordered updates, {@code true} to sum the
+         *                  incorrectly-ordered updates after putting them in order
+         */
+        Checksum(RuleIndex rules, boolean reordered) {
+            this.rules = rules;
+            this.reordered = reordered;
+            this.scratch = rules.newBitset();
+        }
+
+        Checksum add(Cursor line) {
+            final int start = line.position();
+            int length = parseUpdate(line, pages);
+            if (length > pages.length) {
+                pages = new int[Integer.highestOneBit(length) << 1];
+                length = parseUpdate(line.position(start), pages);
+            }
+            if (rules.valid(pages, length, scratch) != reordered) {
+                if (reordered) {
+                    rules.reorder(pages, length, scratch);
+                }
+                sum += pages[length / 2];
+            }
+            return this;
+        }
+
+        Checksum merge(Checksum later) {
+            sum += later.sum;
+            return this;
+        }
+    }
+
+    static long checksum(PrintQueue queue, boolean reordered, ForkJoinPool pool) {
+        final Input input = queue.input();
+        return ChunkedLines.reduce(input, queue.updates(), input.size(), LineReducer.of(
+                () -> new Checksum(queue.rules(), reordered), Checksum::add, Checksum::merge),
+                ChunkedLines.CHUNK_SIZE, pool).sum;
+    }
+
+    public static final class Part1 implements Solver<PrintQueue> {
+
+        @Override
+        public int year() {
+            return 2024;
+        }
+
+        @Override
+        public int day() {
+            return 5;
+        }
+
+        @Override
+        public int part() {
+            return 1;
+        }
+
+        @Override
+        public PrintQueue parse(Path input) throws IOException {
+            return parsePrintQueue(input);
+        }
+
+        @Override
+        public long solve(PrintQueue printQueue) {
+            return checksum(printQueue, false, Workers.pool());
+        }
+    }
+
+    public static final class Part2 implements Solver<PrintQueue> {
+
+        @Override
+        public int year() {
+            return 2024;
+        }
+
+        @Override
+        public int day() {
+            return 5;
+        }
+
+        @Override
+        public int part() {
+            return 2;
+        }
+
+        @Override
+        public PrintQueue parse(Path input) throws IOException {
+            return parsePrintQueue(input);
+        }
+
+        @Override
+        public long solve(PrintQueue printQueue) {
+            return checksum(printQueue, true, Workers.pool());
+        }
+    }
+}
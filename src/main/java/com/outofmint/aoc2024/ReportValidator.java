@@ -0,0 +1,115 @@
+package com.outofmint.aoc2024;
+
+import com.outofmint.io.Cursor;
+
+/**
+ * Decides whether a report is safe after removing at most {@code tolerance} of its levels.
+ * <p>
+ * For both directions, the validator tracks the fewest removals that make the levels up to each position safe while
+ * keeping the level at that position. The previously kept level is at most {@code tolerance + 1} positions back, so
+ * only that many levels and removal counts are kept, in ring buffers reused across reports. A report takes
+ * {@code O(n * tolerance)} steps and no allocation, and parsing stops as soon as no removal count within the tolerance
+ * is left.
+ * <p>
+ * An instance holds scratch state and must not be shared between threads.
+ */
+public final class ReportValidator {
+
+    private static final int MIN_STEP = 1;
+    private static final int MAX_STEP = 3;
+
+    private final int tolerance;
+    private final int window;
+    private final int[] levels;
+    private final int[] increasing;
+    private final int[] decreasing;
+    private int count;
+
+    public ReportValidator(int tolerance) {
+        if (tolerance < 0) {
+            throw new IllegalArgumentException("negative tolerance " + tolerance);
+        }
+        this.tolerance = tolerance;
+        this.window = tolerance + 1;
+        this.levels = new int[window];
+        this.increasing = new int[window];
+        this.decreasing = new int[window];
+    }
+
+    /**
+     * Parses the levels from the cursor up to its limit, stopping early if the report cannot be made safe.
+     */
+    public boolean safe(Cursor report) {
+        reset();
+        while (!report.skipSpaces().atEol()) {
+            if (!accept(report.nextInt())) {
+                return false;
+            }
+        }
+        return safe();
+    }
+
+    public boolean safe(int[] report, int length) {
+        return safe(report, 0, length);
+    }
+
+    /**
+     * Checks the report {@code levels[from]} up to {@code levels[to]}, stopping early if it cannot be made safe.
+     */
+    public boolean safe(int[] levels, int from, int to) {
+        reset();
+        for (int i = from; i < to; i++) {
+            if (!accept(levels[i])) {
+                return false;
+            }
+        }
+        return safe();
+    }
+
+    private void reset() {
+        count = 0;
+    }
+
+    /**
+     * Adds the next level of the report.
+     *
+     * @return whether the report can still be made safe
+     */
+    private boolean accept(int level) {
+        // keeping the level as the first one costs removing everything before it
+        int inc = Math.min(count, window);
+        int dec = inc;
+        for (int back = 1; back <= window && back <= count; back++) {
+            final int slot = (count - back) % window;
+            final int skipped = back - 1;
+            final int step = level - levels[slot];
+            if (step >= MIN_STEP && step <= MAX_STEP) {
+                inc = Math.min(inc, increasing[slot] + skipped);
+            }
+            if (-step >= MIN_STEP && -step <= MAX_STEP) {
+                dec = Math.min(dec, decreasing[slot] + skipped);
+            }
+        }
+        final int slot = count % window;
+        levels[slot] = level;
+        increasing[slot] = inc;
+        decreasing[slot] = dec;
+        count++;
+        // any level that comes later extends one of the states a safe verdict right now would pick
+        return safe();
+    }
+
+    /**
+     * @return whether the levels accepted so far can be made safe by removing at most {@code tolerance} of them,
+     * possibly including the last ones
+     */
+    private boolean safe() {
+        for (int back = 1; back <= window && back <= count; back++) {
+            final int slot = (count - back) % window;
+            if (Math.min(increasing[slot], decreasing[slot]) + back - 1 <= tolerance) {
+                return true;
+            }
+        }
+        return count <= tolerance;
+    }
+}
@@ -0,0 +1,251 @@
+package com.outofmint.aoc2024;
+
+import java.util.Arrays;
+
+/**
+ * The page ordering rules compiled into a bit matrix.
+ * <p>
+ * Pages named in any rule are mapped to dense ids, and row {@code p} of the matrix holds a bit for every page that
+ * has to be printed after page {@code p}. The ids are looked up in a table indexed by page number if the largest
+ * page number is less than {@link #TABLE_SLOTS_PER_PAGE} times the number of pages, and by binary search over the
+ * sorted page numbers otherwise, so memory grows with the number of pages and not with their numbers. An update is
+ * then validated in a single pass, checking each page's row against a bitset of the pages seen so far. The
+ * transposed matrix, holding the pages that have to be printed before each page, lets
+ * {@link #reorder(int[], int, long[])} sort an update without building a graph for it.
+ */
+public final class RuleIndex {
+
+    static final int TABLE_SLOTS_PER_PAGE = 16;
+
+    /**
+     * The ids by page number, {@code -1} for pages named in no rule, or {@code null} if the page numbers are too
+     * sparse.
+     */
+    private final int[] table;
+    private final int[] sortedPages;
+    private final int[] sortedIds;
+    private final int[] pages;
+    private final int words;
+    private final long[] after;
+    private final long[] before;
+
+    private RuleIndex(int[] sortedPages, int[] sortedIds, int[] pages, long[] after, long[] before) {
+        this.sortedPages = sortedPages;
+        this.sortedIds = sortedIds;
+        final int maxPage = sortedPages.length > 0 ? sortedPages[sortedPages.length - 1] : -1;
+        if (maxPage < (long) TABLE_SLOTS_PER_PAGE * Math.max(1, sortedPages.length)) {
+            table = new int[maxPage + 1];
+            Arrays.fill(table, -1);
+            for (int i = 0; i < sortedPages.length; i++) {
+                table[sortedPages[i]] = sortedIds[i];
+            }
+        } else {
+            table = null;
+        }
+        this.pages = pages;
+        this.words = (pages.length + 63) >>> 6;
+        this.after = after;
+        this.before = before;
+    }
+
+    /**
+     * Compiles the rules {@code before[i]|after[i]} for {@code i < count}.
+     */
+    public static RuleIndex compile(int[] before, int[] after, int count) {
+        // every page as it appears in the rules, ids being assigned in that order
+        final int[] named = new int[2 * count];
+        for (int i = 0; i < count; i++) {
+            if (before[i] < 0 || after[i] < 0) {
+                throw new IllegalArgumentException("negative page in rule " + before[i] + "|" + after[i]);
+            }
+            named[i] = before[i];
+            named[count + i] = after[i];
+        }
+        final int[] sorted = named.clone();
+        Arrays.sort(sorted);
+        int numPages = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (i == 0 || sorted[i] != sorted[i - 1]) {
+                sorted[numPages++] = sorted[i];
+            }
+        }
+        final int[] sortedPages = Arrays.copyOf(sorted, numPages);
+        final int[] sortedIds = new int[numPages];
+        Arrays.fill(sortedIds, -1);
+        final int[] pages = new int[numPages];
+        final int[] ids = new int[named.length];
+        for (int i = 0, next = 0; i < named.length; i++) {
+            final int k = Arrays.binarySearch(sortedPages, named[i]);
+            if (sortedIds[k] < 0) {
+                sortedIds[k] = next;
+                pages[next++] = named[i];
+            }
+            ids[i] = sortedIds[k];
+        }
+        final int words = (numPages + 63) >>> 6;
+        final long[] successors = new long[numPages * words];
+        final long[] predecessors = new long[numPages * words];
+        for (int i = 0; i < count; i++) {
+            final int from = ids[i];
+            final int to = ids[count + i];
+            successors[from * words + (to >>> 6)] |= 1L << to;
+            predecessors[to * words + (from >>> 6)] |= 1L << from;
+        }
+        return new RuleIndex(sortedPages, sortedIds, pages, successors, predecessors);
+    }
+
+    /**
+     * @return the number of pages named in the rules
+     */
+    public int pages() {
+        return pages.length;
+    }
+
+    /**
+     * @return the dense id of the page, {@code -1} if no rule names it
+     */
+    public int id(int page) {
+        if (table != null) {
+            return page >= 0 && page < table.length ? table[page] : -1;
+        }
+        final int k = Arrays.binarySearch(sortedPages, page);
+        return k >= 0 ? sortedIds[k] : -1;
+    }
+
+    /**
+     * @return the page of a dense id
+     */
+    public int page(int id) {
+        return pages[id];
+    }
+
+    /**
+     * @return whether a rule requires page id {@code a} to be printed before page id {@code b}
+     */
+    public boolean precedes(int a, int b) {
+        return (after[a * words + (b >>> 6)] & (1L << b)) != 0;
+    }
+
+    /**
+     * @return a bitset large enough to be passed as scratch space to {@link #valid(int[], int, long[])} and
+     * {@link #reorder(int[], int, long[])}
+     */
+    public long[] newBitset() {
+        return new long[Math.max(1, words)];
+    }
+
+    /**
+     * Checks the order of an update in a single pass.
+     *
+     * @param update the pages of the update
+     * @param length the number of pages in {@code update}
+     * @param seen   scratch space from {@link #newBitset()}, all zero before and after the call
+     * @return whether no page is printed after a page that a rule requires to come later
+     */
+    public boolean valid(int[] update, int length, long[] seen) {
+        boolean valid = true;
+        for (int i = 0; i < length && valid; i++) {
+            final int id = id(update[i]);
+            if (id < 0) {
+                continue;
+            }
+            final int row = id * words;
+            for (int w = 0; w < words; w++) {
+                if ((after[row + w] & seen[w]) != 0) {
+                    valid = false;
+                    break;
+                }
+            }
+            seen[id >>> 6] |= 1L << id;
+        }
+        Arrays.fill(seen, 0);
+        return valid;
+    }
+
+    /**
+     * Sorts an update in place so that it satisfies all rules, keeping the relative order of pages wherever the rules
+     * allow it.
+     * <p>
+     * This is Kahn's algorithm on the rules between the pages of the update: each position is filled with the first
+     * remaining page none of whose predecessors remain.
+     *
+     * @param update the pages of the update
+     * @param length the number of pages in {@code update}
+     * @param remaining scratch space from {@link #newBitset()}, all zero before and after the call
+     * @throws IllegalArgumentException if the rules between the pages of the update form a cycle
+     */
+    public void reorder(int[] update, int length, long[] remaining) {
+        for (int i = 0; i < length; i++) {
+            final int id = id(update[i]);
+            if (id >= 0) {
+                remaining[id >>> 6] |= 1L << id;
+            }
+        }
+        for (int position = 0; position < length; position++) {
+            int next = position;
+            while (next < length && !ready(update[next], remaining)) {
+                next++;
+            }
+            if (next == length) {
+                final String cycle = cycle(update[position], remaining);
+                Arrays.fill(remaining, 0);
+                throw new IllegalArgumentException("the rules form a cycle: " + cycle);
+            }
+            final int page = update[next];
+            System.arraycopy(update, position, update, position + 1, next - position);
+            update[position] = page;
+            final int id = id(page);
+            if (id >= 0) {
+                remaining[id >>> 6] &= ~(1L << id);
+            }
+        }
+    }
+
+    private boolean ready(int page, long[] remaining) {
+        final int id = id(page);
+        if (id < 0) {
+            return true;
+        }
+        final int row = id * words;
+        for (int w = 0; w < words; w++) {
+            if ((before[row + w] & remaining[w]) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Walks back from a page along predecessors among the remaining pages, each of which has one, until a page repeats.
+     *
+     * @return the pages of the cycle, as in {@code "47|53|29|47"}
+     */
+    private String cycle(int page, long[] remaining) {
+        final int[] visitedAt = new int[pages.length];
+        Arrays.fill(visitedAt, -1);
+        final int[] path = new int[pages.length + 1];
+        int length = 0;
+        int id = id(page);
+        while (visitedAt[id] < 0) {
+            visitedAt[id] = length;
+            path[length++] = id;
+            id = predecessor(id, remaining);
+        }
+        final StringBuilder cycle = new StringBuilder();
+        for (int i = length - 1; i >= visitedAt[id]; i--) {
+            cycle.append(pages[path[i]]).append('|');
+        }
+        return cycle.append(pages[path[length - 1]]).toString();
+    }
+
+    private int predecessor(int id, long[] remaining) {
+        final int row = id * words;
+        for (int w = 0; w < words; w++) {
+            final long candidates = before[row + w] & remaining[w];
+            if (candidates != 0) {
+                return (w << 6) + Long.numberOfTrailingZeros(candidates);
+            }
+        }
+        throw new IllegalStateException("page " + pages[id] + " has no remaining predecessor");
+    }
+}
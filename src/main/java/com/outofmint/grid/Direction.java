@@ -0,0 +1,41 @@
+package com.outofmint.grid;
+
+/**
+ * The eight directions from a cell to its neighbours, rows growing downwards.
+ */
+public enum Direction {
+    UP(-1, 0),
+    UP_RIGHT(-1, 1),
+    RIGHT(0, 1),
+    DOWN_RIGHT(1, 1),
+    DOWN(1, 0),
+    DOWN_LEFT(1, -1),
+    LEFT(0, -1),
+    UP_LEFT(-1, -1);
+
+    private static final Direction[] VALUES = values();
+
+    private final int dRow;
+    private final int dCol;
+
+    Direction(int dRow, int dCol) {
+        this.dRow = dRow;
+        this.dCol = dCol;
+    }
+
+    public int dRow() {
+        return dRow;
+    }
+
+    public int dCol() {
+        return dCol;
+    }
+
+    public Direction opposite() {
+        return VALUES[(ordinal() + 4) % 8];
+    }
+
+    public boolean diagonal() {
+        return dRow != 0 && dCol != 0;
+    }
+}
@@ -0,0 +1,282 @@
+package com.outofmint.grid;
+
+import com.outofmint.io.Input;
+import com.outofmint.io.LineIndex;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * A rectangular grid of ASCII cells packed row by row into a single {@code byte[]}.
+ * <p>
+ * The grid can be surrounded by a border of {@code padding} sentinel cells. Any walk of at most {@code padding}
+ * steps from a cell inside the grid then stays inside the array and simply reads the sentinel when it leaves the
+ * grid, so scans can step through {@linkplain #index(int, int) raw indices} by {@linkplain #step(Direction) a fixed
+ * stride} without checking bounds.
+ */
+public final class Grid {
+
+    private final byte[] cells;
+    private final int rows;
+    private final int cols;
+    private final int padding;
+    private final int stride;
+
+    private Grid(int rows, int cols, int padding, byte sentinel) {
+        this.rows = rows;
+        this.cols = cols;
+        this.padding = padding;
+        this.stride = cols + 2 * padding;
+        this.cells = new byte[Math.multiplyExact(rows + 2 * padding, stride)];
+        if (padding > 0) {
+            Arrays.fill(cells, sentinel);
+        }
+    }
+
+    /**
+     * Reads the grid from the lines of the input, without padding.
+     */
+    public static Grid parse(Input input) {
+        return parse(input, 0, (byte) 0);
+    }
+
+    /**
+     * Reads the grid from the lines of the input. Trailing blank lines are ignored, all other lines must have the same
+     * length, so a blank line between rows is an error.
+     *
+     * @param padding  the width of the sentinel border around the grid
+     * @param sentinel the value of the border cells
+     */
+    public static Grid parse(Input input, int padding, byte sentinel) {
+        final LineIndex lines = input.lines();
+        int rows = lines.count();
+        while (rows > 0 && lines.length(rows - 1) == 0) {
+            rows--;
+        }
+        final int cols = rows > 0 ? lines.length(0) : 0;
+        final Grid grid = new Grid(rows, cols, padding, sentinel);
+        for (int row = 0; row < rows; row++) {
+            if (lines.length(row) != cols) {
+                throw new IllegalArgumentException("row " + row + " has " + lines.length(row) + " cells, expected "
+                        + cols);
+            }
+            input.get(lines.start(row), lines.end(row), grid.cells, grid.index(row, 0));
+        }
+        return grid;
+    }
+
+    public static Grid of(String... rows) {
+        return parse(Input.of(String.join("\n", rows)));
+    }
+
+    public int rows() {
+        return rows;
+    }
+
+    public int cols() {
+        return cols;
+    }
+
+    public int padding() {
+        return padding;
+    }
+
+    public boolean contains(int row, int col) {
+        return row >= 0 && row < rows && col >= 0 && col < cols;
+    }
+
+    /**
+     * @return the cell, or the sentinel for positions at most {@code padding} cells outside the grid
+     */
+    public byte get(int row, int col) {
+        return cells[index(row, col)];
+    }
+
+    public void set(int row, int col, byte value) {
+        cells[index(row, col)] = value;
+    }
+
+    /**
+     * @return the raw index of the cell, valid for positions at most {@code padding} cells outside the grid
+     */
+    public int index(int row, int col) {
+        return (row + padding) * stride + col + padding;
+    }
+
+    /**
+     * @return the row of a raw index
+     */
+    public int rowOf(int index) {
+        return index / stride - padding;
+    }
+
+    /**
+     * @return the column of a raw index
+     */
+    public int colOf(int index) {
+        return index % stride - padding;
+    }
+
+    /**
+     * @return the cell at a raw index
+     */
+    public byte at(int index) {
+        return cells[index];
+    }
+
+    /**
+     * @return the raw index offset of one step in the given direction
+     */
+    public int step(Direction direction) {
+        return step(direction.dRow(), direction.dCol());
+    }
+
+    /**
+     * @return the raw index offset of moving {@code dRow} rows and {@code dCol} columns
+     */
+    public int step(int dRow, int dCol) {
+        return dRow * stride + dCol;
+    }
+
+    /**
+     * Applies {@code operator} to every cell inside the grid, leaving the sentinels untouched.
+     */
+    public Grid replaceAll(IntUnaryOperator operator) {
+        for (int row = 0; row < rows; row++) {
+            for (int i = index(row, 0), end = i + cols; i < end; i++) {
+                cells[i] = (byte) operator.applyAsInt(cells[i]);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * @return the number of cells inside the grid with the given value
+     */
+    public long count(byte value) {
+        long count = 0;
+        for (int row = 0; row < rows; row++) {
+            for (int i = index(row, 0), end = i + cols; i < end; i++) {
+                if (cells[i] == value) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return whether {@code word} can be read starting at the cell in the given direction, with at most
+     * {@code padding} steps leaving the grid
+     */
+    public boolean matches(int row, int col, Direction direction, byte[] word) {
+        final int step = step(direction);
+        int index = index(row, col);
+        for (byte b : word) {
+            if (cells[index] != b) {
+                return false;
+            }
+            index += step;
+        }
+        return true;
+    }
+
+    public Line row(int row) {
+        return new Line(this, index(row, 0), 1, cols);
+    }
+
+    public Line column(int col) {
+        return new Line(this, index(0, col), stride, rows);
+    }
+
+    /**
+     * Diagonals run down and to the right and are numbered by {@code col - row} of their cells, from
+     * {@code -(rows - 1)} to {@code cols - 1}.
+     */
+    public Line diagonal(int diagonal) {
+        final int row = Math.max(0, -diagonal);
+        final int col = Math.max(0, diagonal);
+        return new Line(this, index(row, col), stride + 1, Math.max(0, Math.min(rows - row, cols - col)));
+    }
+
+    public int diagonals() {
+        return rows + cols - 1;
+    }
+
+    /**
+     * Anti-diagonals run down and to the left and are numbered by {@code row + col} of their cells, from {@code 0}
+     * to {@code rows + cols - 2}.
+     */
+    public Line antiDiagonal(int antiDiagonal) {
+        final int row = Math.max(0, antiDiagonal - (cols - 1));
+        final int col = Math.min(antiDiagonal, cols - 1);
+        return new Line(this, index(row, col), stride - 1, Math.max(0, Math.min(rows - row, col + 1)));
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder output = new StringBuilder(rows * (cols + 1));
+        for (int row = 0; row < rows; row++) {
+            output.append(new String(cells, index(row, 0), cols, StandardCharsets.US_ASCII)).append('\n');
+        }
+        return output.toString();
+    }
+
+    /**
+     * A view of a straight line of cells, e.g. a row, a column or a diagonal.
+     */
+    public static final class Line {
+
+        private final Grid grid;
+        private final int start;
+        private final int step;
+        private final int length;
+
+        Line(Grid grid, int start, int step, int length) {
+            this.grid = grid;
+            this.start = start;
+            this.step = step;
+            this.length = length;
+        }
+
+        public int length() {
+            return length;
+        }
+
+        public byte get(int i) {
+            return grid.cells[start + i * step];
+        }
+
+        /**
+         * @return the raw grid index of the {@code i}-th cell
+         */
+        public int index(int i) {
+            return start + i * step;
+        }
+
+        /**
+         * Copies the cells into {@code target} starting at {@code offset}.
+         */
+        public void copyTo(byte[] target, int offset) {
+            if (step == 1) {
+                System.arraycopy(grid.cells, start, target, offset, length);
+            } else {
+                for (int i = 0, index = start; i < length; i++, index += step) {
+                    target[offset + i] = grid.cells[index];
+                }
+            }
+        }
+
+        public byte[] toArray() {
+            final byte[] bytes = new byte[length];
+            copyTo(bytes, 0);
+            return bytes;
+        }
+
+        @Override
+        public String toString() {
+            return new String(toArray(), StandardCharsets.US_ASCII);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.outofmint.grid;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Counts something over all rows of a {@link Grid} by splitting the rows into stripes processed on a fork-join pool.
+ * <p>
+ * Every stripe counts into a local variable and the stripe results are added up when the tasks join, so workers
+ * never contend on a shared counter.
+ */
+public final class StripedScan {
+
+    /**
+     * Stripes per worker, so workers finishing early can steal the remaining stripes.
+     */
+    private static final int STRIPES_PER_WORKER = 4;
+
+    private StripedScan() {
+    }
+
+    /**
+     * Counts matches in a single row, reading neighbouring rows as needed.
+     */
+    @FunctionalInterface
+    public interface RowCounter {
+
+        long count(Grid grid, int row);
+    }
+
+    /**
+     * Sums the counts of rows {@code [fromRow, toRow)} on the calling thread.
+     */
+    public static long sum(Grid grid, int fromRow, int toRow, RowCounter counter) {
+        long sum = 0;
+        for (int row = fromRow; row < toRow; row++) {
+            sum += counter.count(grid, row);
+        }
+        return sum;
+    }
+
+    /**
+     * Sums the counts of rows {@code [fromRow, toRow)} in parallel.
+     */
+    public static long sum(Grid grid, int fromRow, int toRow, RowCounter counter, ForkJoinPool pool) {
+        final int stripes = pool.getParallelism() * STRIPES_PER_WORKER;
+        final int stripeRows = Math.max(1, (toRow - fromRow + stripes - 1) / stripes);
+        return pool.invoke(new Stripe(grid, fromRow, toRow, stripeRows, counter));
+    }
+
+    private static final class Stripe extends RecursiveTask<Long> {
+
+        private final Grid grid;
+        private final int fromRow;
+        private final int toRow;
+        private final int stripeRows;
+        private final RowCounter counter;
+
+        Stripe(Grid grid, int fromRow, int toRow, int stripeRows, RowCounter counter) {
+            this.grid = grid;
+            this.fromRow = fromRow;
+            this.toRow = toRow;
+            this.stripeRows = stripeRows;
+            this.counter = counter;
+        }
+
+        @Override
+        protected Long compute() {
+            if (toRow - fromRow <= stripeRows) {
+                return sum(grid, fromRow, toRow, counter);
+            }
+            final int mid = (fromRow + toRow) >>> 1;
+            final Stripe right = new Stripe(grid, mid, toRow, stripeRows, counter);
+            right.fork();
+            final long left = new Stripe(grid, fromRow, mid, stripeRows, counter).compute();
+            return left + right.join();
+        }
+    }
+}
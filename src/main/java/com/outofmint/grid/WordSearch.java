@@ -0,0 +1,278 @@
+package com.outofmint.grid;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Counts the words of a word list in a {@link Grid} in all eight directions, every cell being read once per line
+ * family, however many words there are.
+ * <p>
+ * The words and their reverses are compiled into an Aho-Corasick automaton with a full transition table over the
+ * bytes the words use. Reading a row, a column, a diagonal or an {@linkplain Grid#antiDiagonal(int) anti-diagonal}
+ * in one direction finds the words read in that direction through the words and their reverses in the other. The
+ * grid is scanned row by row, keeping one automaton state per column, diagonal and anti-diagonal, so the columns and
+ * diagonals advance together with the rows instead of being walked across the rows one at a time.
+ * <p>
+ * In parallel, every stripe of rows first reads the {@code longest - 1} rows above it without counting, which brings
+ * every column and diagonal to the state it would have had after reading all rows above: no state remembers more
+ * than that many cells. A stripe counts how often it passes through every automaton state, and the counts of the
+ * words follow from the outputs of the states.
+ */
+public final class WordSearch {
+
+    /**
+     * Stripes per worker, so workers finishing early can steal the remaining stripes.
+     */
+    private static final int STRIPES_PER_WORKER = 4;
+
+    private static final int OUTPUT = Integer.MIN_VALUE;
+    private static final int OFFSET = Integer.MAX_VALUE;
+
+    private final int words;
+    private final int longest;
+    private final int[] classes;
+    private final int alphabet;
+    /**
+     * The transitions, {@code delta[(state & OFFSET) + class]} being the next state. A state is its offset into the
+     * table, i.e. the node multiplied by the alphabet size, with the sign bit set if the node has outputs.
+     */
+    private final int[] delta;
+    private final int[][] outputs;
+
+    private WordSearch(int words, int longest, int[] classes, int alphabet, int[] delta, int[][] outputs) {
+        this.words = words;
+        this.longest = longest;
+        this.classes = classes;
+        this.alphabet = alphabet;
+        this.delta = new int[delta.length];
+        for (int i = 0; i < delta.length; i++) {
+            this.delta[i] = delta[i] * alphabet | (outputs[delta[i]].length > 0 ? OUTPUT : 0);
+        }
+        this.outputs = outputs;
+    }
+
+    /**
+     * Compiles a word list. Words listed twice are counted twice, palindromes are counted in both directions.
+     *
+     * @throws IllegalArgumentException if there are no words or a word is empty
+     */
+    public static WordSearch of(String... words) {
+        if (words.length == 0) {
+            throw new IllegalArgumentException("no words to search for");
+        }
+        final byte[][] patterns = new byte[2 * words.length][];
+        for (int w = 0; w < words.length; w++) {
+            if (words[w].isEmpty()) {
+                throw new IllegalArgumentException("cannot search for an empty word");
+            }
+            patterns[2 * w] = words[w].getBytes(StandardCharsets.US_ASCII);
+            patterns[2 * w + 1] = new StringBuilder(words[w]).reverse().toString().getBytes(StandardCharsets.US_ASCII);
+        }
+        // bytes that occur in no word share class 0
+        final int[] classes = new int[256];
+        int alphabet = 1;
+        int longest = 0;
+        for (byte[] pattern : patterns) {
+            longest = Math.max(longest, pattern.length);
+            for (byte b : pattern) {
+                if (classes[b & 0xff] == 0) {
+                    classes[b & 0xff] = alphabet++;
+                }
+            }
+        }
+        // the trie, -1 marking missing edges
+        final List<int[]> trie = new ArrayList<>();
+        final List<List<Integer>> own = new ArrayList<>();
+        trie.add(newNode(alphabet));
+        own.add(new ArrayList<>());
+        for (int p = 0; p < patterns.length; p++) {
+            int node = 0;
+            for (byte b : patterns[p]) {
+                final int c = classes[b & 0xff];
+                if (trie.get(node)[c] < 0) {
+                    trie.get(node)[c] = trie.size();
+                    trie.add(newNode(alphabet));
+                    own.add(new ArrayList<>());
+                }
+                node = trie.get(node)[c];
+            }
+            own.get(node).add(p / 2);
+        }
+        // breadth first, completing the transitions along the failure links and collecting the outputs
+        final int nodes = trie.size();
+        final int[] delta = new int[nodes * alphabet];
+        final int[] fail = new int[nodes];
+        final int[][] outputs = new int[nodes][];
+        final Queue<Integer> queue = new ArrayDeque<>();
+        outputs[0] = own.get(0).stream().mapToInt(Integer::intValue).toArray();
+        for (int c = 0; c < alphabet; c++) {
+            final int child = trie.get(0)[c];
+            delta[c] = Math.max(child, 0);
+            if (child > 0) {
+                queue.add(child);
+            }
+        }
+        while (!queue.isEmpty()) {
+            final int node = queue.remove();
+            final int[] inherited = outputs[fail[node]];
+            final int[] mine = own.get(node).stream().mapToInt(Integer::intValue).toArray();
+            outputs[node] = Arrays.copyOf(mine, mine.length + inherited.length);
+            System.arraycopy(inherited, 0, outputs[node], mine.length, inherited.length);
+            for (int c = 0; c < alphabet; c++) {
+                final int child = trie.get(node)[c];
+                if (child > 0) {
+                    fail[child] = delta[fail[node] * alphabet + c];
+                    delta[node * alphabet + c] = child;
+                    queue.add(child);
+                } else {
+                    delta[node * alphabet + c] = delta[fail[node] * alphabet + c];
+                }
+            }
+        }
+        return new WordSearch(words.length, longest, classes, alphabet, delta, outputs);
+    }
+
+    private static int[] newNode(int alphabet) {
+        final int[] edges = new int[alphabet];
+        Arrays.fill(edges, -1);
+        return edges;
+    }
+
+    /**
+     * @return how often the words occur, summed over all words, on the calling thread
+     */
+    public long count(Grid grid) {
+        return total(scan(grid, 0, grid.rows()));
+    }
+
+    /**
+     * @return how often the words occur, summed over all words
+     */
+    public long count(Grid grid, ForkJoinPool pool) {
+        return total(scan(grid, pool));
+    }
+
+    /**
+     * @return how often each word occurs, in the order of the word list
+     */
+    public long[] countEach(Grid grid, ForkJoinPool pool) {
+        final long[] visits = scan(grid, pool);
+        final long[] counts = new long[words];
+        for (int node = 0; node < visits.length; node++) {
+            for (int word : outputs[node]) {
+                counts[word] += visits[node];
+            }
+        }
+        return counts;
+    }
+
+    private long total(long[] visits) {
+        long total = 0;
+        for (int node = 0; node < visits.length; node++) {
+            total += visits[node] * outputs[node].length;
+        }
+        return total;
+    }
+
+    private long[] scan(Grid grid, ForkJoinPool pool) {
+        final int stripes = pool.getParallelism() * STRIPES_PER_WORKER;
+        final int stripeRows = Math.max(longest, (grid.rows() + stripes - 1) / stripes);
+        return pool.invoke(new Stripe(grid, 0, grid.rows(), stripeRows));
+    }
+
+    /**
+     * Scans rows {@code [fromRow, toRow)} in all directions. A byte that occurs in no word sends all four lines back
+     * to the start state without looking up any transitions.
+     *
+     * @return how often every node of the automaton with outputs was entered
+     */
+    private long[] scan(Grid grid, int fromRow, int toRow) {
+        final long[] visits = new long[outputs.length];
+        final int rows = grid.rows();
+        final int cols = grid.cols();
+        final int[] column = new int[cols];
+        // diagonals by col - row + rows - 1, anti-diagonals by row + col
+        final int[] diagonal = new int[Math.max(0, rows + cols - 1)];
+        final int[] antiDiagonal = new int[diagonal.length];
+        for (int row = Math.max(0, fromRow - (longest - 1)); row < fromRow; row++) {
+            final int diagonalOffset = rows - 1 - row;
+            for (int col = 0, index = grid.index(row, 0); col < cols; col++, index++) {
+                final int c = classes[grid.at(index) & 0xff];
+                column[col] = delta[(column[col] & OFFSET) + c];
+                diagonal[col + diagonalOffset] = delta[(diagonal[col + diagonalOffset] & OFFSET) + c];
+                antiDiagonal[row + col] = delta[(antiDiagonal[row + col] & OFFSET) + c];
+            }
+        }
+        for (int row = fromRow; row < toRow; row++) {
+            final int diagonalOffset = rows - 1 - row;
+            int state = 0;
+            for (int col = 0, index = grid.index(row, 0); col < cols; col++, index++) {
+                final int c = classes[grid.at(index) & 0xff];
+                if (c == 0) {
+                    state = 0;
+                    column[col] = 0;
+                    diagonal[col + diagonalOffset] = 0;
+                    antiDiagonal[row + col] = 0;
+                    continue;
+                }
+                state = delta[(state & OFFSET) + c];
+                final int down = delta[(column[col] & OFFSET) + c];
+                column[col] = down;
+                final int downRight = delta[(diagonal[col + diagonalOffset] & OFFSET) + c];
+                diagonal[col + diagonalOffset] = downRight;
+                final int downLeft = delta[(antiDiagonal[row + col] & OFFSET) + c];
+                antiDiagonal[row + col] = downLeft;
+                if ((state | down | downRight | downLeft) < 0) {
+                    visit(visits, state);
+                    visit(visits, down);
+                    visit(visits, downRight);
+                    visit(visits, downLeft);
+                }
+            }
+        }
+        return visits;
+    }
+
+    private void visit(long[] visits, int state) {
+        if (state < 0) {
+            visits[(state & OFFSET) / alphabet]++;
+        }
+    }
+
+    private final class Stripe extends RecursiveTask<long[]> {
+
+        private final Grid grid;
+        private final int fromRow;
+        private final int toRow;
+        private final int stripeRows;
+
+        Stripe(Grid grid, int fromRow, int toRow, int stripeRows) {
+            this.grid = grid;
+            this.fromRow = fromRow;
+            this.toRow = toRow;
+            this.stripeRows = stripeRows;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (toRow - fromRow <= stripeRows) {
+                return scan(grid, fromRow, toRow);
+            }
+            final int mid = (fromRow + toRow) >>> 1;
+            final Stripe right = new Stripe(grid, mid, toRow, stripeRows);
+            right.fork();
+            final long[] visits = new Stripe(grid, fromRow, mid, stripeRows).compute();
+            final long[] rightVisits = right.join();
+            for (int i = 0; i < visits.length; i++) {
+                visits[i] += rightVisits[i];
+            }
+            return visits;
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.outofmint.io;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
+
+/**
+ * Reduces the lines of an {@link Input} in parallel, for puzzles whose lines are independent records.
+ * <p>
+ * A byte range is split into chunks of about {@link #CHUNK_SIZE} bytes, each ending right after a line break, so
+ * every line belongs to exactly one chunk. The chunks are folded by a {@link LineReducer} on a fork-join pool, and
+ * the chunk results are either combined pairwise in input order ({@link #reduce}) or handed to a sequential consumer
+ * in input order ({@link #forEachOrdered}) where the result of a line depends on all lines before it. Empty lines are
+ * skipped. Ranges no larger than a single chunk are reduced on the calling thread.
+ */
+public final class ChunkedLines {
+
+    /**
+     * Target size of a chunk in bytes.
+     */
+    public static final int CHUNK_SIZE = 1 << 20;
+
+    /**
+     * Chunks reduced ahead of the consumer of {@link #forEachOrdered}, per worker.
+     */
+    private static final int CHUNKS_AHEAD_PER_WORKER = 2;
+
+    private ChunkedLines() {
+    }
+
+    /**
+     * Reduces the lines starting in {@code [from, to)} on the calling thread.
+     */
+    public static <A> A reduce(Input input, int from, int to, LineReducer<A> reducer) {
+        final Cursor c = input.cursor(from, to);
+        final Cursor line = input.cursor();
+        A accumulator = reducer.identity();
+        while (c.hasRemaining()) {
+            line.reset(c.position(), c.lineEnd());
+            if (line.hasRemaining()) {
+                accumulator = reducer.accumulate(accumulator, line);
+            }
+            c.skipLine();
+        }
+        return accumulator;
+    }
+
+    /**
+     * Reduces the lines starting in {@code [from, to)} in parallel chunks of about {@code chunkSize} bytes.
+     */
+    public static <A> A reduce(Input input, int from, int to, LineReducer<A> reducer, int chunkSize,
+                               ForkJoinPool pool) {
+        if (to - from <= chunkSize) {
+            return reduce(input, from, to, reducer);
+        }
+        return pool.invoke(new ReduceTask<>(input, from, to, reducer, chunkSize));
+    }
+
+    public static <A> A reduce(Input input, LineReducer<A> reducer, ForkJoinPool pool) {
+        return reduce(input, 0, input.size(), reducer, CHUNK_SIZE, pool);
+    }
+
+    /**
+     * Sums a value per line in parallel, without boxing per line.
+     */
+    public static long sum(Input input, int from, int to, ToLongFunction<Cursor> value, ForkJoinPool pool) {
+        return reduce(input, from, to, LineReducer.of(
+                () -> new long[1],
+                (sum, line) -> {
+                    sum[0] += value.applyAsLong(line);
+                    return sum;
+                },
+                (earlier, later) -> {
+                    earlier[0] += later[0];
+                    return earlier;
+                }), CHUNK_SIZE, pool)[0];
+    }
+
+    public static long sum(Input input, ToLongFunction<Cursor> value, ForkJoinPool pool) {
+        return sum(input, 0, input.size(), value, pool);
+    }
+
+    /**
+     * Reduces the chunks of {@code [from, to)} in parallel and passes their accumulators to {@code consumer} on the
+     * calling thread, in input order. Only a bounded number of chunks is reduced ahead of the consumer, so memory
+     * does not grow with the size of the input.
+     */
+    public static <A> void forEachOrdered(Input input, int from, int to, LineReducer<A> reducer,
+                                          Consumer<? super A> consumer, int chunkSize, ForkJoinPool pool) {
+        if (to - from <= chunkSize) {
+            consumer.accept(reduce(input, from, to, reducer));
+            return;
+        }
+        final int ahead = Math.max(1, pool.getParallelism() * CHUNKS_AHEAD_PER_WORKER);
+        final Deque<ForkJoinTask<A>> pending = new ArrayDeque<>();
+        int start = from;
+        while (start < to || !pending.isEmpty()) {
+            while (start < to && pending.size() < ahead) {
+                final int end = chunkEnd(input, start, to, chunkSize);
+                final int chunkStart = start;
+                pending.addLast(pool.submit(() -> reduce(input, chunkStart, end, reducer)));
+                start = end;
+            }
+            consumer.accept(pending.removeFirst().join());
+        }
+    }
+
+    public static <A> void forEachOrdered(Input input, LineReducer<A> reducer, Consumer<? super A> consumer,
+                                          ForkJoinPool pool) {
+        forEachOrdered(input, 0, input.size(), reducer, consumer, CHUNK_SIZE, pool);
+    }
+
+    /**
+     * @return the end of the chunk starting at {@code start}: right after the first line break at least
+     * {@code chunkSize} bytes in, or {@code to}
+     */
+    static int chunkEnd(Input input, int start, int to, int chunkSize) {
+        if (to - start <= chunkSize) {
+            return to;
+        }
+        return Math.min(to, input.indexOf((byte) '\n', start + chunkSize - 1, to) + 1);
+    }
+
+    private static final class ReduceTask<A> extends RecursiveTask<A> {
+
+        private final Input input;
+        private final int from;
+        private final int to;
+        private final LineReducer<A> reducer;
+        private final int chunkSize;
+
+        ReduceTask(Input input, int from, int to, LineReducer<A> reducer, int chunkSize) {
+            this.input = input;
+            this.from = from;
+            this.to = to;
+            this.reducer = reducer;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        protected A compute() {
+            if (to - from <= chunkSize) {
+                return reduce(input, from, to, reducer);
+            }
+            // split right after a line break near the middle, or not at all if the rest is a single line
+            final int mid = Math.min(to, input.indexOf((byte) '\n', from + (to - from) / 2, to) + 1);
+            if (mid >= to) {
+                return reduce(input, from, to, reducer);
+            }
+            final ReduceTask<A> later = new ReduceTask<>(input, mid, to, reducer, chunkSize);
+            later.fork();
+            final A earlier = new ReduceTask<>(input, from, mid, reducer, chunkSize).compute();
+            return reducer.combine(earlier, later.join());
+        }
+    }
+}
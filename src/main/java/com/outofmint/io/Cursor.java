@@ -0,0 +1,259 @@
+package com.outofmint.io;
+
+/**
+ * A mutable read position within {@code [position, limit)} of an {@link Input}, parsing numbers and literals
+ * straight from the bytes without allocating.
+ * <p>
+ * Cursors are cheap and not thread-safe; create one per thread and {@linkplain #reset(int, int) reset} it instead of
+ * creating one per line.
+ */
+public final class Cursor {
+
+    private final Input input;
+    private int position;
+    private int limit;
+
+    Cursor(Input input, int position, int limit) {
+        this.input = input;
+        this.position = position;
+        this.limit = limit;
+    }
+
+    public Input input() {
+        return input;
+    }
+
+    public Cursor reset(int position, int limit) {
+        this.position = position;
+        this.limit = limit;
+        return this;
+    }
+
+    public int position() {
+        return position;
+    }
+
+    public Cursor position(int position) {
+        this.position = position;
+        return this;
+    }
+
+    public int limit() {
+        return limit;
+    }
+
+    public boolean hasRemaining() {
+        return position < limit;
+    }
+
+    /**
+     * @return the current byte, {@code 0} at the limit
+     */
+    public byte peek() {
+        return position < limit ? input.get(position) : 0;
+    }
+
+    public byte next() {
+        return input.get(position++);
+    }
+
+    public Cursor skip(int n) {
+        position = Math.min(limit, position + n);
+        return this;
+    }
+
+    /**
+     * @return whether the cursor is at a line terminator or at its limit
+     */
+    public boolean atEol() {
+        if (position >= limit) {
+            return true;
+        }
+        final byte b = input.get(position);
+        return b == '\n' || b == '\r';
+    }
+
+    /**
+     * Skips spaces and tabs, but not line breaks.
+     */
+    public Cursor skipSpaces() {
+        while (position < limit) {
+            final byte b = input.get(position);
+            if (b != ' ' && b != '\t') {
+                break;
+            }
+            position++;
+        }
+        return this;
+    }
+
+    /**
+     * Moves past the next line break.
+     *
+     * @return whether there is anything left after it
+     */
+    public boolean skipLine() {
+        position = Math.min(limit, input.indexOf((byte) '\n', position, limit) + 1);
+        return position < limit;
+    }
+
+    /**
+     * @return the end of the current line, excluding a trailing {@code \r}
+     */
+    public int lineEnd() {
+        int end = input.indexOf((byte) '\n', position, limit);
+        if (end > position && input.get(end - 1) == '\r') {
+            end--;
+        }
+        return end;
+    }
+
+    /**
+     * Moves to the next occurrence of {@code b}, or to the limit if there is none.
+     *
+     * @return whether {@code b} was found
+     */
+    public boolean skipTo(byte b) {
+        position = input.indexOf(b, position, limit);
+        return position < limit;
+    }
+
+    /**
+     * Consumes {@code literal} if the input continues with it.
+     *
+     * @return whether the literal was consumed
+     */
+    public boolean match(byte[] literal) {
+        if (limit - position < literal.length) {
+            return false;
+        }
+        for (int i = 0; i < literal.length; i++) {
+            if (input.get(position + i) != literal[i]) {
+                return false;
+            }
+        }
+        position += literal.length;
+        return true;
+    }
+
+    /**
+     * Consumes {@code b} if it is the current byte.
+     */
+    public boolean match(byte b) {
+        if (position < limit && input.get(position) == b) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Skips leading spaces and parses a decimal integer with an optional minus sign.
+     *
+     * @throws NumberFormatException if there is no digit at the current position or the number does not fit an int
+     */
+    public int nextInt() {
+        final int start = skipSpaces().position;
+        final long value = nextLong();
+        if ((int) value != value) {
+            throw outOfRange(start, "an int");
+        }
+        return (int) value;
+    }
+
+    /**
+     * Skips leading spaces and parses a decimal long with an optional minus sign.
+     *
+     * @throws NumberFormatException if there is no digit at the current position or the number does not fit a long
+     */
+    public long nextLong() {
+        skipSpaces();
+        final boolean negative = match((byte) '-');
+        final int start = position;
+        // accumulated negatively, as Long.parseLong does, to reach Long.MIN_VALUE
+        final long min = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+        long value = 0;
+        while (position < limit) {
+            final int digit = input.get(position) - '0';
+            if (digit < 0 || digit > 9) {
+                break;
+            }
+            if (value < min / 10 || value * 10 < min + digit) {
+                throw outOfRange(start, "a long");
+            }
+            value = value * 10 - digit;
+            position++;
+        }
+        if (position == start) {
+            throw new NumberFormatException("no number at offset " + start + ": "
+                    + input.string(start, Math.min(limit, start + 16)));
+        }
+        return negative ? value : -value;
+    }
+
+    /**
+     * Parses an unsigned decimal number right at the current position, without skipping spaces or accepting a sign.
+     *
+     * @return the number, or {@code -1} if the cursor is not at a digit
+     * @throws NumberFormatException if the number does not fit a long
+     */
+    public long nextDigits() {
+        final int start = position;
+        long value = 0;
+        while (position < limit) {
+            final int digit = input.get(position) - '0';
+            if (digit < 0 || digit > 9) {
+                break;
+            }
+            if (value > (Long.MAX_VALUE - digit) / 10) {
+                throw outOfRange(start, "a long");
+            }
+            value = value * 10 + digit;
+            position++;
+        }
+        return position == start ? -1 : value;
+    }
+
+    /**
+     * Parses an unsigned decimal number of at most {@code maxDigits} digits right at the current position, without
+     * skipping spaces or accepting a sign. A longer run of digits is no such number; the cursor is then left after
+     * the first {@code maxDigits} of them.
+     *
+     * @param maxDigits at most 18, so that the number always fits a long
+     * @return the number, or {@code -1} if the cursor is not at a digit or at more than {@code maxDigits} of them
+     */
+    public long nextDigits(int maxDigits) {
+        final int start = position;
+        long value = 0;
+        while (position < limit) {
+            final int digit = input.get(position) - '0';
+            if (digit < 0 || digit > 9) {
+                break;
+            }
+            if (position - start == maxDigits) {
+                return -1;
+            }
+            value = value * 10 + digit;
+            position++;
+        }
+        return position == start ? -1 : value;
+    }
+
+    private NumberFormatException outOfRange(int start, String type) {
+        return new NumberFormatException("number at offset " + start + " does not fit " + type + ": "
+                + input.string(start, Math.min(limit, start + 24)));
+    }
+
+    /**
+     * @return whether the current byte is a decimal digit
+     */
+    public boolean atDigit() {
+        final byte b = peek();
+        return b >= '0' && b <= '9';
+    }
+
+    @Override
+    public String toString() {
+        return input.string(position, limit);
+    }
+}
@@ -0,0 +1,194 @@
+package com.outofmint.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Puzzle input as raw bytes, memory-mapped straight from the file.
+ * <p>
+ * Parsing works on the bytes through {@link Cursor}s and the {@link LineIndex} instead of materializing every line
+ * as a {@link String}. Puzzle inputs are ASCII, so a byte is a character. Inputs are limited to 2 GiB per mapping;
+ * solvers taking larger files map them as several {@linkplain #regions(Path, int) regions} or
+ * {@linkplain #lineRegions(Path) line regions} and process them one after another.
+ */
+public final class Input {
+
+    /**
+     * The largest region mapped by {@link #regions(Path, int)} and {@link #lineRegions(Path)}, leaving room below
+     * 2 GiB for the overlap.
+     */
+    public static final int MAX_REGION_SIZE = 1 << 30;
+
+    private final ByteBuffer buffer;
+
+    private Input(ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    /**
+     * Maps the whole file.
+     *
+     * @throws IOException if the file cannot be read or is larger than 2 GiB
+     */
+    public static Input map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return map(channel, 0, channel.size());
+        }
+    }
+
+    /**
+     * Maps {@code size} bytes of the file starting at {@code position}.
+     *
+     * @throws IOException if the file cannot be read or the region is larger than 2 GiB
+     */
+    public static Input map(Path path, long position, long size) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return map(channel, position, size);
+        }
+    }
+
+    /**
+     * A mapped region of a larger file.
+     *
+     * @param size the bytes of the region, without the overlap mapped after them
+     */
+    public record Region(Input input, int size) {
+    }
+
+    /**
+     * Maps a file of any size as consecutive regions of {@link #MAX_REGION_SIZE} bytes, the last one shorter. Every
+     * region also maps up to {@code overlap} bytes after it, so that a record starting in a region can be read to its
+     * end from that region alone if it is at most {@code overlap + 1} bytes long.
+     */
+    public static List<Region> regions(Path path, int overlap) throws IOException {
+        return regions(path, MAX_REGION_SIZE, overlap);
+    }
+
+    static List<Region> regions(Path path, int regionSize, int overlap) throws IOException {
+        final List<Region> regions = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final long size = channel.size();
+            long position = 0;
+            do {
+                final int length = (int) Math.min(regionSize, size - position);
+                final Input region = map(channel, position, Math.min(size - position, (long) length + overlap));
+                regions.add(new Region(region, length));
+                position += length;
+            } while (position < size);
+        }
+        return regions;
+    }
+
+    /**
+     * Maps a file of any size as consecutive regions of at most {@link #MAX_REGION_SIZE} bytes, each ending right
+     * after a line break or at the end of the file, so that every line lies in exactly one region.
+     *
+     * @throws IOException if the file cannot be read or has a line longer than a region
+     */
+    public static List<Input> lineRegions(Path path) throws IOException {
+        return lineRegions(path, MAX_REGION_SIZE);
+    }
+
+    static List<Input> lineRegions(Path path, int regionSize) throws IOException {
+        final List<Input> regions = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final long size = channel.size();
+            long position = 0;
+            do {
+                Input region = map(channel, position, Math.min(regionSize, size - position));
+                if (position + region.size() < size) {
+                    int end = region.size();
+                    while (end > 0 && region.get(end - 1) != '\n') {
+                        end--;
+                    }
+                    if (end == 0) {
+                        throw new IOException("line at offset " + position + " of " + path + " is longer than "
+                                + regionSize + " bytes");
+                    }
+                    region = map(channel, position, end);
+                }
+                regions.add(region);
+                position += region.size();
+            } while (position < size);
+        }
+        return regions;
+    }
+
+    private static Input map(FileChannel channel, long position, long size) throws IOException {
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("cannot map " + size + " bytes at once, map the input in regions");
+        }
+        // the mapping stays valid after the channel is closed
+        return new Input(channel.map(FileChannel.MapMode.READ_ONLY, position, size));
+    }
+
+    public static Input wrap(byte[] bytes) {
+        return new Input(ByteBuffer.wrap(bytes));
+    }
+
+    public static Input of(String text) {
+        return wrap(text.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    public int size() {
+        return buffer.limit();
+    }
+
+    public byte get(int index) {
+        return buffer.get(index);
+    }
+
+    /**
+     * Copies {@code [from, to)} into {@code target} starting at {@code offset}.
+     */
+    public void get(int from, int to, byte[] target, int offset) {
+        buffer.get(from, target, offset, to - from);
+    }
+
+    /**
+     * @return the position of the first occurrence of {@code b} in {@code [from, to)}, or {@code to} if there is none
+     */
+    public int indexOf(byte b, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (buffer.get(i) == b) {
+                return i;
+            }
+        }
+        return to;
+    }
+
+    /**
+     * Decodes {@code [from, to)}, meant for section names, error messages and debug output only.
+     */
+    public String string(int from, int to) {
+        final byte[] bytes = new byte[to - from];
+        get(from, to, bytes, 0);
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+
+    @Override
+    public String toString() {
+        return string(0, size());
+    }
+
+    public Cursor cursor() {
+        return new Cursor(this, 0, size());
+    }
+
+    public Cursor cursor(int from, int to) {
+        return new Cursor(this, from, to);
+    }
+
+    /**
+     * Scans the input once for line breaks.
+     */
+    public LineIndex lines() {
+        return LineIndex.of(this);
+    }
+}
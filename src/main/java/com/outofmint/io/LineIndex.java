@@ -0,0 +1,70 @@
+package com.outofmint.io;
+
+import java.util.Arrays;
+
+/**
+ * The start offsets of all lines of an {@link Input}.
+ * <p>
+ * Line {@code i} spans {@code [start(i), end(i))}, excluding its line terminator. A trailing line break does not
+ * start another, empty line.
+ */
+public final class LineIndex {
+
+    private final Input input;
+    private final int[] starts;
+    private final int count;
+
+    private LineIndex(Input input, int[] starts, int count) {
+        this.input = input;
+        this.starts = starts;
+        this.count = count;
+    }
+
+    static LineIndex of(Input input) {
+        final int size = input.size();
+        int[] starts = new int[Math.max(16, size / 64)];
+        int count = 0;
+        int start = 0;
+        while (start < size) {
+            if (count == starts.length) {
+                starts = Arrays.copyOf(starts, 2 * count);
+            }
+            starts[count++] = start;
+            start = input.indexOf((byte) '\n', start, size) + 1;
+        }
+        return new LineIndex(input, starts, count);
+    }
+
+    public int count() {
+        return count;
+    }
+
+    public int start(int line) {
+        return starts[line];
+    }
+
+    /**
+     * @return the end of the line, excluding {@code \n} and {@code \r\n} terminators
+     */
+    public int end(int line) {
+        int end = line + 1 < count ? starts[line + 1] - 1 : input.size();
+        if (line + 1 == count && end > starts[line] && input.get(end - 1) == '\n') {
+            end--;
+        }
+        if (end > starts[line] && input.get(end - 1) == '\r') {
+            end--;
+        }
+        return end;
+    }
+
+    public int length(int line) {
+        return end(line) - start(line);
+    }
+
+    /**
+     * Points {@code cursor} at the given line, so a single cursor can be reused for all lines.
+     */
+    public Cursor cursor(int line, Cursor cursor) {
+        return cursor.reset(start(line), end(line));
+    }
+}
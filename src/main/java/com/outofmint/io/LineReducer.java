@@ -0,0 +1,55 @@
+package com.outofmint.io;
+
+import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
+import java.util.function.Supplier;
+
+/**
+ * Folds the lines of a chunk of input into an accumulator, for {@link ChunkedLines}.
+ * <p>
+ * Every chunk starts from a fresh {@link #identity()} and sees its lines in input order. Accumulators may be mutable
+ * and returned from {@link #accumulate} and {@link #combine} as they are, since a chunk's accumulator is only ever
+ * touched by one thread at a time.
+ *
+ * @param <A> the accumulator
+ */
+public interface LineReducer<A> {
+
+    /**
+     * @return a new, empty accumulator for a chunk
+     */
+    A identity();
+
+    /**
+     * Adds a line to the accumulator.
+     *
+     * @param line a cursor over the line, limited to its end and excluding the line terminator, valid during the call
+     *             only
+     */
+    A accumulate(A accumulator, Cursor line);
+
+    /**
+     * Merges the accumulators of two adjacent chunks. Must be associative, but need not be commutative: {@code earlier}
+     * always covers the lines before those of {@code later}.
+     */
+    A combine(A earlier, A later);
+
+    static <A> LineReducer<A> of(Supplier<A> identity, BiFunction<A, Cursor, A> accumulate, BinaryOperator<A> combine) {
+        return new LineReducer<>() {
+            @Override
+            public A identity() {
+                return identity.get();
+            }
+
+            @Override
+            public A accumulate(A accumulator, Cursor line) {
+                return accumulate.apply(accumulator, line);
+            }
+
+            @Override
+            public A combine(A earlier, A later) {
+                return combine.apply(earlier, later);
+            }
+        };
+    }
+}
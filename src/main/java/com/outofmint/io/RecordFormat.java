@@ -0,0 +1,291 @@
+package com.outofmint.io;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A line format compiled into a parser that reads the bytes of a line and reports its fields to a {@link FieldSink},
+ * without creating any objects per line.
+ * <p>
+ * A format is literal text with placeholders and groups:
+ * <ul>
+ *     <li>{@code {int}} is a decimal number with an optional minus sign, after optional spaces</li>
+ *     <li>{@code {enum a|b|c}} is one of the words, reported as its index; the first word that matches wins</li>
+ *     <li>{@code (...)} groups, and may be followed by {@code ?}, {@code *} or {@code +}</li>
+ *     <li>{@code \} escapes any of {@code \{}()?*+} to match it literally</li>
+ * </ul>
+ * Fields are numbered from 0 in the order their placeholders appear in the format, and reported as they match, so
+ * the parser never backtracks over a field: a group that fails after one of its fields was reported fails the whole
+ * line. For example, {@code "Game {int}: ({int} {enum red|green|blue}(, )?(; )?)+"} reports the game id as field 0
+ * and then every cube count and color as fields 1 and 2.
+ * <p>
+ * A compiled format is a tree of nodes that is interpreted for every line, with a virtual call per node. The call
+ * sites within groups see several kinds of node, so the JIT does not inline them; the parser is still faster than
+ * splitting the line into strings, as it reads the bytes once and allocates nothing.
+ * <p>
+ * Compiled formats are immutable and can be shared between threads.
+ */
+public final class RecordFormat {
+
+    private static final int NO_MATCH = 0;
+    private static final int MATCH = 1;
+    /**
+     * A match that reported at least one field.
+     */
+    private static final int REPORTED = 2;
+
+    /**
+     * Receives the fields of a line, in the order they appear in it.
+     */
+    @FunctionalInterface
+    public interface FieldSink {
+
+        /**
+         * @param field the number of the placeholder
+         * @param value the number, or the index of the word for {@code {enum}} fields
+         */
+        void field(int field, long value);
+    }
+
+    private final String format;
+    private final Node root;
+    private final int fields;
+
+    private RecordFormat(String format, Node root, int fields) {
+        this.format = format;
+        this.root = root;
+        this.fields = fields;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the format is malformed
+     */
+    public static RecordFormat compile(String format) {
+        final Compiler compiler = new Compiler(format);
+        final Node root = compiler.sequence();
+        if (compiler.position < format.length()) {
+            throw compiler.error("unbalanced ')'");
+        }
+        return new RecordFormat(format, root, compiler.fields);
+    }
+
+    /**
+     * @return the number of fields
+     */
+    public int fields() {
+        return fields;
+    }
+
+    /**
+     * Parses the line from the cursor up to its limit.
+     *
+     * @throws NumberFormatException if the line does not match the format
+     */
+    public void parse(Cursor line, FieldSink sink) {
+        if (root.match(line, sink) == NO_MATCH || line.hasRemaining()) {
+            throw new NumberFormatException("'" + line + "' does not match '" + format + "'");
+        }
+    }
+
+    @Override
+    public String toString() {
+        return format;
+    }
+
+    /**
+     * A compiled piece of the format.
+     */
+    private interface Node {
+
+        /**
+         * Matches at the cursor. On {@link #NO_MATCH} the cursor may have moved, but no field has been reported.
+         *
+         * @return {@link #NO_MATCH}, {@link #MATCH}, or {@link #REPORTED} if the match reported a field
+         * @throws NumberFormatException if the node fails after reporting a field
+         */
+        int match(Cursor c, FieldSink sink);
+    }
+
+    private record Literal(byte[] bytes) implements Node {
+
+        @Override
+        public int match(Cursor c, FieldSink sink) {
+            return c.match(bytes) ? MATCH : NO_MATCH;
+        }
+    }
+
+    private record IntField(int field) implements Node {
+
+        @Override
+        public int match(Cursor c, FieldSink sink) {
+            c.skipSpaces();
+            final int start = c.position();
+            c.match((byte) '-');
+            if (!c.atDigit()) {
+                return NO_MATCH;
+            }
+            c.position(start);
+            sink.field(field, c.nextLong());
+            return REPORTED;
+        }
+    }
+
+    private record EnumField(int field, byte[][] words) implements Node {
+
+        @Override
+        public int match(Cursor c, FieldSink sink) {
+            for (int i = 0; i < words.length; i++) {
+                if (c.match(words[i])) {
+                    sink.field(field, i);
+                    return REPORTED;
+                }
+            }
+            return NO_MATCH;
+        }
+    }
+
+    private record Sequence(Node[] nodes) implements Node {
+
+        @Override
+        public int match(Cursor c, FieldSink sink) {
+            int result = MATCH;
+            for (Node node : nodes) {
+                final int matched = node.match(c, sink);
+                if (matched == NO_MATCH) {
+                    if (result == REPORTED) {
+                        throw new NumberFormatException("incomplete group at " + c);
+                    }
+                    return NO_MATCH;
+                }
+                result = Math.max(result, matched);
+            }
+            return result;
+        }
+    }
+
+    private record Repeat(Node node, boolean required, boolean repeated) implements Node {
+
+        @Override
+        public int match(Cursor c, FieldSink sink) {
+            int count = 0;
+            int result = MATCH;
+            while (true) {
+                final int start = c.position();
+                final int matched = node.match(c, sink);
+                if (matched == NO_MATCH) {
+                    c.position(start);
+                    break;
+                }
+                result = Math.max(result, matched);
+                count++;
+                // stop on an empty match, which would match forever
+                if (!repeated || c.position() == start) {
+                    break;
+                }
+            }
+            return count > 0 || !required ? result : NO_MATCH;
+        }
+    }
+
+    private static final class Compiler {
+
+        private final String format;
+        private int position;
+        private int fields;
+
+        Compiler(String format) {
+            this.format = format;
+        }
+
+        /**
+         * Compiles up to the end of the format or an unmatched {@code ')'}.
+         */
+        Node sequence() {
+            final List<Node> nodes = new ArrayList<>();
+            final StringBuilder literal = new StringBuilder();
+            while (position < format.length() && format.charAt(position) != ')') {
+                final char ch = format.charAt(position);
+                if (ch == '\\') {
+                    if (position + 1 == format.length()) {
+                        throw error("dangling '\\'");
+                    }
+                    literal.append(format.charAt(position + 1));
+                    position += 2;
+                } else if (ch == '{' || ch == '(') {
+                    flush(literal, nodes);
+                    nodes.add(ch == '{' ? field() : group());
+                } else if (ch == '?' || ch == '*' || ch == '+') {
+                    throw error("'" + ch + "' must follow a group");
+                } else if (ch == '}') {
+                    throw error("unbalanced '}'");
+                } else {
+                    literal.append(ch);
+                    position++;
+                }
+            }
+            flush(literal, nodes);
+            return nodes.size() == 1 ? nodes.get(0) : new Sequence(nodes.toArray(Node[]::new));
+        }
+
+        private Node group() {
+            position++;
+            final Node node = sequence();
+            if (position == format.length()) {
+                throw error("unbalanced '('");
+            }
+            position++;
+            final char quantifier = position < format.length() ? format.charAt(position) : 0;
+            return switch (quantifier) {
+                case '?' -> {
+                    position++;
+                    yield new Repeat(node, false, false);
+                }
+                case '*' -> {
+                    position++;
+                    yield new Repeat(node, false, true);
+                }
+                case '+' -> {
+                    position++;
+                    yield new Repeat(node, true, true);
+                }
+                default -> node;
+            };
+        }
+
+        private Node field() {
+            final int end = format.indexOf('}', position);
+            if (end < 0) {
+                throw error("unbalanced '{'");
+            }
+            final String spec = format.substring(position + 1, end).trim();
+            position = end + 1;
+            if (spec.equals("int")) {
+                return new IntField(fields++);
+            }
+            if (spec.startsWith("enum ")) {
+                final String[] words = spec.substring("enum ".length()).trim().split("\\|");
+                final byte[][] bytes = new byte[words.length][];
+                for (int i = 0; i < words.length; i++) {
+                    if (words[i].isEmpty()) {
+                        throw error("empty word in {" + spec + "}");
+                    }
+                    bytes[i] = words[i].getBytes(StandardCharsets.US_ASCII);
+                }
+                return new EnumField(fields++, bytes);
+            }
+            throw error("unknown placeholder {" + spec + "}");
+        }
+
+        private void flush(StringBuilder literal, List<Node> nodes) {
+            if (!literal.isEmpty()) {
+                nodes.add(new Literal(literal.toString().getBytes(StandardCharsets.US_ASCII)));
+                literal.setLength(0);
+            }
+        }
+
+        IllegalArgumentException error(String message) {
+            return new IllegalArgumentException(message + " at " + position + " in format '" + format + "'");
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.outofmint.synth;
+
+import java.util.OptionalLong;
+
+/**
+ * The answers of a generated input, as far as the generator knows them.
+ */
+public record Answers(OptionalLong part1, OptionalLong part2) {
+
+    public static Answers of(long part1, long part2) {
+        return new Answers(OptionalLong.of(part1), OptionalLong.of(part2));
+    }
+
+    public static Answers part1(long part1) {
+        return new Answers(OptionalLong.of(part1), OptionalLong.empty());
+    }
+
+    public OptionalLong part(int part) {
+        return switch (part) {
+            case 1 -> part1;
+            case 2 -> part2;
+            default -> throw new IllegalArgumentException("no part " + part);
+        };
+    }
+}
@@ -0,0 +1,32 @@
+package com.outofmint.synth;
+
+import java.util.List;
+
+/**
+ * The input generators of all days.
+ */
+public final class Generators {
+
+    private static final List<InputGenerator> ALL = List.of(
+            new Generators2023.Day1(), new Generators2023.Day2(), new Generators2023.Day3(),
+            new Generators2023.Day4(), new Generators2023.Day5(),
+            new Generators2024.Day1(), new Generators2024.Day2(), new Generators2024.Day3(),
+            new Generators2024.Day4(), new Generators2024.Day5());
+
+    private Generators() {
+    }
+
+    public static List<InputGenerator> all() {
+        return ALL;
+    }
+
+    /**
+     * @throws IllegalArgumentException if there is no generator for the day
+     */
+    public static InputGenerator of(int year, int day) {
+        return ALL.stream()
+                .filter(g -> g.year() == year && g.day() == day)
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("no input generator for " + year + "/" + day));
+    }
+}
@@ -0,0 +1,390 @@
+package com.outofmint.synth;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.OptionalLong;
+import java.util.SplittableRandom;
+
+/**
+ * Input generators for the 2023 puzzles.
+ */
+public final class Generators2023 {
+
+    private static final String[] WORDS = {"one", "two", "three", "four", "five", "six", "seven", "eight", "nine"};
+
+    private Generators2023() {
+    }
+
+    /**
+     * Calibration lines of random letters, digits and spelled digits, each with at least one digit. Scale is the
+     * number of lines.
+     */
+    public static final class Day1 implements InputGenerator {
+
+        @Override
+        public int year() {
+            return 2023;
+        }
+
+        @Override
+        public int day() {
+            return 1;
+        }
+
+        @Override
+        public Answers write(long scale, long seed, Writer out) throws IOException {
+            final SplittableRandom random = new SplittableRandom(seed);
+            final StringBuilder line = new StringBuilder();
+            long digits = 0;
+            long words = 0;
+            for (long i = 0; i < scale; i++) {
+                line.setLength(0);
+                final int tokens = 1 + random.nextInt(8);
+                final int digitToken = random.nextInt(tokens);
+                for (int t = 0; t < tokens; t++) {
+                    if (t == digitToken) {
+                        line.append((char) ('1' + random.nextInt(9)));
+                        continue;
+                    }
+                    switch (random.nextInt(3)) {
+                        case 0 -> line.append((char) ('1' + random.nextInt(9)));
+                        case 1 -> line.append(WORDS[random.nextInt(WORDS.length)]);
+                        default -> {
+                            for (int c = 1 + random.nextInt(5); c > 0; c--) {
+                                line.append((char) ('a' + random.nextInt(26)));
+                            }
+                        }
+                    }
+                }
+                digits += 10L * digitAt(line, false, true) + digitAt(line, false, false);
+                words += 10L * digitAt(line, true, true) + digitAt(line, true, false);
+                out.append(line).append('\n');
+            }
+            return Answers.of(digits, words);
+        }
+
+        /**
+         * @return the first or the last digit of the line, found by trying every position
+         */
+        private static int digitAt(CharSequence line, boolean words, boolean first) {
+            for (int n = 0; n < line.length(); n++) {
+                final int i = first ? n : line.length() - 1 - n;
+                final char c = line.charAt(i);
+                if (c >= '1' && c <= '9') {
+                    return c - '0';
+                }
+                if (words) {
+                    for (int w = 0; w < WORDS.length; w++) {
+                        if (startsWith(line, i, WORDS[w])) {
+                            return w + 1;
+                        }
+                    }
+                }
+            }
+            throw new IllegalStateException("no digit in " + line);
+        }
+
+        private static boolean startsWith(CharSequence line, int from, String word) {
+            if (from + word.length() > line.length()) {
+                return false;
+            }
+            for (int i = 0; i < word.length(); i++) {
+                if (line.charAt(from + i) != word.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Games of one to six draws of up to 20 cubes of each color. Scale is the number of games.
+     */
+    public static final class Day2 implements InputGenerator {
+
+        private static final String[] COLORS = {"red", "green", "blue"};
+        private static final int[] LIMITS = {12, 13, 14};
+
+        @Override
+        public int year() {
+            return 2023;
+        }
+
+        @Override
+        public int day() {
+            return 2;
+        }
+
+        @Override
+        public Answers write(long scale, long seed, Writer out) throws IOException {
+            final SplittableRandom random = new SplittableRandom(seed);
+            final StringBuilder line = new StringBuilder();
+            final int[] colors = {0, 1, 2};
+            final int[] max = new int[COLORS.length];
+            long possible = 0;
+            long power = 0;
+            for (long game = 1; game <= scale; game++) {
+                line.setLength(0);
+                line.append("Game ").append(game).append(": ");
+                Arrays.fill(max, 0);
+                for (int draw = 1 + random.nextInt(6); draw > 0; draw--) {
+                    shuffle(colors, random);
+                    final int shown = 1 + random.nextInt(colors.length);
+                    for (int c = 0; c < shown; c++) {
+                        final int count = 1 + random.nextInt(20);
+                        max[colors[c]] = Math.max(max[colors[c]], count);
+                        line.append(count).append(' ').append(COLORS[colors[c]]);
+                        line.append(c + 1 < shown ? ", " : draw > 1 ? "; " : "");
+                    }
+                }
+                if (max[0] <= LIMITS[0] && max[1] <= LIMITS[1] && max[2] <= LIMITS[2]) {
+                    possible += game;
+                }
+                power += (long) max[0] * max[1] * max[2];
+                out.append(line).append('\n');
+            }
+            return Answers.of(possible, power);
+        }
+    }
+
+    /**
+     * A schematic of 8 by 4 tiles, 17 tiles wide. A tile holds a symbol in its second row, a number touching it from
+     * above left and one from below right, either of which may be missing, and a blank last row and column so that
+     * tiles never touch. Scale is the number of tile rows.
+     */
+    public static final class Day3 implements InputGenerator {
+
+        private static final int TILES = 17;
+        private static final String SYMBOLS = "*#+$/@%=&-";
+
+        @Override
+        public int year() {
+            return 2023;
+        }
+
+        @Override
+        public int day() {
+            return 3;
+        }
+
+        @Override
+        public Answers write(long scale, long seed, Writer out) throws IOException {
+            final SplittableRandom random = new SplittableRandom(seed);
+            final char[][] rows = new char[4][8 * TILES];
+            long parts = 0;
+            long ratios = 0;
+            for (long band = 0; band < scale; band++) {
+                for (char[] row : rows) {
+                    Arrays.fill(row, '.');
+                }
+                for (int tile = 0; tile < TILES; tile++) {
+                    final int col = 8 * tile;
+                    final int above = random.nextInt(4) == 0 ? 0 : 100 + random.nextInt(900);
+                    final int below = random.nextInt(4) == 0 ? 0 : 100 + random.nextInt(900);
+                    final char symbol = random.nextInt(8) == 0 ? '.' : SYMBOLS.charAt(random.nextInt(SYMBOLS.length()));
+                    if (above > 0) {
+                        Integer.toString(above).getChars(0, 3, rows[0], col);
+                    }
+                    rows[1][col + 3] = symbol;
+                    if (below > 0) {
+                        Integer.toString(below).getChars(0, 3, rows[2], col + 4);
+                    }
+                    if (symbol != '.') {
+                        parts += above + below;
+                    }
+                    if (symbol == '*' && above > 0 && below > 0) {
+                        ratios += (long) above * below;
+                    }
+                }
+                for (char[] row : rows) {
+                    out.write(row);
+                    out.write('\n');
+                }
+            }
+            return Answers.of(parts, ratios);
+        }
+    }
+
+    /**
+     * Cards of 10 winning numbers and 25 numbers we have, all in {@code [1, 99]}. Cards are grouped in runs of 16
+     * whose wins never reach past the run, which keeps the number of copies below {@code 2^15} per card. Scale is the
+     * number of cards.
+     */
+    public static final class Day4 implements InputGenerator {
+
+        private static final int WINNING = 10;
+        private static final int MINE = 25;
+        private static final int RUN = 16;
+
+        @Override
+        public int year() {
+            return 2023;
+        }
+
+        @Override
+        public int day() {
+            return 4;
+        }
+
+        @Override
+        public Answers write(long scale, long seed, Writer out) throws IOException {
+            final SplittableRandom random = new SplittableRandom(seed);
+            final StringBuilder line = new StringBuilder();
+            final int[] numbers = new int[99];
+            final int[] mine = new int[MINE];
+            final long[] copies = new long[RUN];
+            long points = 0;
+            long cards = 0;
+            for (long card = 1; card <= scale; card++) {
+                final int position = (int) ((card - 1) % RUN);
+                if (position == 0) {
+                    Arrays.fill(copies, 1);
+                }
+                final int matches = random.nextInt(Math.min(WINNING, RUN - 1 - position) + 1);
+                for (int i = 0; i < numbers.length; i++) {
+                    numbers[i] = i + 1;
+                }
+                // the first WINNING numbers win, the next ones lose
+                for (int i = 0; i < WINNING + MINE - matches; i++) {
+                    final int j = i + random.nextInt(numbers.length - i);
+                    final int n = numbers[i];
+                    numbers[i] = numbers[j];
+                    numbers[j] = n;
+                }
+                System.arraycopy(numbers, 0, mine, 0, matches);
+                System.arraycopy(numbers, WINNING, mine, matches, MINE - matches);
+                shuffle(mine, random);
+                line.setLength(0);
+                line.append("Card ").append(card).append(':');
+                for (int i = 0; i < WINNING; i++) {
+                    appendNumber(line, numbers[i]);
+                }
+                line.append(" |");
+                for (int n : mine) {
+                    appendNumber(line, n);
+                }
+                out.append(line).append('\n');
+                if (matches > 0) {
+                    points += 1L << (matches - 1);
+                }
+                for (int i = 1; i <= matches; i++) {
+                    copies[position + i] += copies[position];
+                }
+                cards += copies[position];
+            }
+            return Answers.of(points, cards);
+        }
+
+        private static void appendNumber(StringBuilder line, int n) {
+            line.append(n < 10 ? "  " : " ").append(n);
+        }
+    }
+
+    /**
+     * An almanac whose every map cuts the 32-bit range into {@code scale} ranges, three quarters of which are mapped
+     * to random destinations. The seed ranges are at most 10000 long, so part 2 is derived by mapping every seed.
+     */
+    public static final class Day5 implements InputGenerator {
+
+        private static final String[] STAGES = {"seed-to-soil", "soil-to-fertilizer", "fertilizer-to-water",
+                "water-to-light", "light-to-temperature", "temperature-to-humidity", "humidity-to-location"};
+        private static final long RANGE = 1L << 32;
+        private static final int MAX_SEED_RANGE = 10_000;
+
+        @Override
+        public int year() {
+            return 2023;
+        }
+
+        @Override
+        public int day() {
+            return 5;
+        }
+
+        @Override
+        public Answers write(long scale, long seed, Writer out) throws IOException {
+            if (scale < 1 || scale > RANGE / 2) {
+                throw new IllegalArgumentException("ranges per map must be in [1, 2^31], was " + scale);
+            }
+            final SplittableRandom random = new SplittableRandom(seed);
+            final int ranges = (int) scale;
+            final long[] seeds = new long[2 * (10 + ranges / 100)];
+            for (int i = 0; i < seeds.length; i += 2) {
+                seeds[i] = random.nextLong(RANGE - MAX_SEED_RANGE);
+                seeds[i + 1] = 1 + random.nextInt(MAX_SEED_RANGE);
+            }
+            out.write("seeds:");
+            for (long s : seeds) {
+                out.append(' ').append(Long.toString(s));
+            }
+            out.write('\n');
+            // every map as source starts, destination starts and lengths sorted by source, -1 marking identity
+            final long[][][] maps = new long[STAGES.length][][];
+            final int[] order = new int[ranges];
+            for (int stage = 0; stage < STAGES.length; stage++) {
+                final long[] starts = new long[ranges];
+                for (int i = 1; i < ranges; i++) {
+                    starts[i] = 1 + random.nextLong(RANGE - 1);
+                }
+                Arrays.sort(starts, 1, ranges);
+                final long[] destinations = new long[ranges];
+                final long[] lengths = new long[ranges];
+                for (int i = 0; i < ranges; i++) {
+                    lengths[i] = (i + 1 < ranges ? starts[i + 1] : RANGE) - starts[i];
+                    destinations[i] = lengths[i] == 0 || random.nextInt(4) == 0 ? -1
+                            : random.nextLong(RANGE - lengths[i] + 1);
+                    order[i] = i;
+                }
+                shuffle(order, random);
+                out.append('\n').append(STAGES[stage]).append(" map:\n");
+                for (int i : order) {
+                    if (destinations[i] >= 0) {
+                        out.append(Long.toString(destinations[i])).append(' ')
+                                .append(Long.toString(starts[i])).append(' ')
+                                .append(Long.toString(lengths[i])).append('\n');
+                    }
+                }
+                maps[stage] = new long[][]{starts, destinations, lengths};
+            }
+            long single = Long.MAX_VALUE;
+            for (int i = 0; i < seeds.length; i++) {
+                single = Math.min(single, location(maps, seeds[i]));
+            }
+            long ranged = Long.MAX_VALUE;
+            for (int i = 0; i < seeds.length; i += 2) {
+                for (long s = seeds[i]; s < seeds[i] + seeds[i + 1]; s++) {
+                    ranged = Math.min(ranged, location(maps, s));
+                }
+            }
+            return new Answers(OptionalLong.of(single), OptionalLong.of(ranged));
+        }
+
+        private static long location(long[][][] maps, long value) {
+            for (long[][] map : maps) {
+                final long[] starts = map[0];
+                int i = Arrays.binarySearch(starts, value);
+                if (i < 0) {
+                    i = -i - 2;
+                }
+                // equal starts mark empty ranges, the last of them is the one holding the value
+                while (i + 1 < starts.length && starts[i + 1] == value) {
+                    i++;
+                }
+                if (map[1][i] >= 0) {
+                    value = map[1][i] + value - starts[i];
+                }
+            }
+            return value;
+        }
+    }
+
+    static void shuffle(int[] values, SplittableRandom random) {
+        for (int i = values.length - 1; i > 0; i--) {
+            final int j = random.nextInt(i + 1);
+            final int v = values[i];
+            values[i] = values[j];
+            values[j] = v;
+        }
+    }
+}
@@ -0,0 +1,395 @@
+package com.outofmint.synth;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+import static com.outofmint.synth.Generators2023.shuffle;
+
+/**
+ * Input generators for the 2024 puzzles.
+ */
+public final class Generators2024 {
+
+    private Generators2024() {
+    }
+
+    /**
+     * Two location lists, each the shuffle of a sorted list that can be computed at any index. The left list is
+     * strictly increasing and the right one holds every value twice, so both answers come from walking the sorted
+     * lists side by side, without holding either in memory. Lines are shuffled by an affine permutation of the
+     * indices. Scale is the number of lines.
+     */
+    public static final class Day1 implements InputGenerator {
+
+        @Override
+        public int year() {
+            return 2024;
+        }
+
+        @Override
+        public int day() {
+            return 1;
+        }
+
+        @Override
+        public Answers write(long scale, long seed, Writer out) throws IOException {
+            if (scale < 1 || scale > Integer.MAX_VALUE / 3) {
+                throw new IllegalArgumentException("lines must be in [1, " + Integer.MAX_VALUE / 3 + "], was " + scale);
+            }
+            final SplittableRandom random = new SplittableRandom(seed);
+            final long leftSalt = random.nextLong();
+            final long rightSalt = random.nextLong();
+            final long leftStride = stride(scale, random);
+            final long rightStride = stride(scale, random);
+            final long leftOffset = random.nextLong(scale);
+            final long rightOffset = random.nextLong(scale);
+            final StringBuilder line = new StringBuilder();
+            for (long i = 0; i < scale; i++) {
+                line.setLength(0);
+                line.append(left((leftStride * i + leftOffset) % scale, leftSalt)).append("   ")
+                        .append(right((rightStride * i + rightOffset) % scale, rightSalt));
+                out.append(line).append('\n');
+            }
+            long distance = 0;
+            long similarity = 0;
+            long r = 0;
+            for (long k = 0; k < scale; k++) {
+                final long value = left(k, leftSalt);
+                distance += Math.abs(value - right(k, rightSalt));
+                while (r < scale && right(r, rightSalt) < value) {
+                    r++;
+                }
+                for (long s = r; s < scale && right(s, rightSalt) == value; s++) {
+                    similarity += value;
+                }
+            }
+            return Answers.of(distance, similarity);
+        }
+
+        /**
+         * @return a stride coprime to {@code n}, so that {@code i -> stride * i mod n} is a permutation
+         */
+        private static long stride(long n, SplittableRandom random) {
+            while (true) {
+                final long stride = 1 + random.nextLong(Math.max(1, n - 1));
+                if (gcd(stride, n) == 1) {
+                    return stride;
+                }
+            }
+        }
+
+        private static long gcd(long a, long b) {
+            return b == 0 ? a : gcd(b, a % b);
+        }
+
+        private static long left(long k, long salt) {
+            return 1 + 3 * k + Long.remainderUnsigned(mix(k ^ salt), 3);
+        }
+
+        private static long right(long k, long salt) {
+            return 1 + 3 * (k / 2) + Long.remainderUnsigned(mix((k / 2) ^ salt), 3);
+        }
+    }
+
+    /**
+     * Reports of 5 to 8 levels, mostly monotonic with steps of 1 to 3, some of them spoilt by one or two bad levels.
+     * Scale is the number of reports.
+     */
+    public static final class Day2 implements InputGenerator {
+
+        @Override
+        public int year() {
+            return 2024;
+        }
+
+        @Override
+        public int day() {
+            return 2;
+        }
+
+        @Override
+        public Answers write(long scale, long seed, Writer out) throws IOException {
+            final SplittableRandom random = new SplittableRandom(seed);
+            final StringBuilder line = new StringBuilder();
+            final int[] levels = new int[8];
+            long safe = 0;
+            long tolerated = 0;
+            for (long report = 0; report < scale; report++) {
+                final int length = 5 + random.nextInt(4);
+                final int direction = random.nextBoolean() ? 1 : -1;
+                levels[0] = direction > 0 ? 5 + random.nextInt(50) : 50 + random.nextInt(50);
+                for (int i = 1; i < length; i++) {
+                    levels[i] = levels[i - 1] + direction * (1 + random.nextInt(3));
+                }
+                for (int bad = random.nextInt(4) - 1; bad > 0; bad--) {
+                    levels[random.nextInt(length)] += random.nextInt(9) - 4;
+                }
+                line.setLength(0);
+                for (int i = 0; i < length; i++) {
+                    line.append(i > 0 ? " " : "").append(levels[i]);
+                }
+                out.append(line).append('\n');
+                if (safe(levels, length, -1)) {
+                    safe++;
+                    tolerated++;
+                } else {
+                    for (int skip = 0; skip < length; skip++) {
+                        if (safe(levels, length, skip)) {
+                            tolerated++;
+                            break;
+                        }
+                    }
+                }
+            }
+            return Answers.of(safe, tolerated);
+        }
+
+        private static boolean safe(int[] levels, int length, int skip) {
+            int previous = -1;
+            int sign = 0;
+            for (int i = 0; i < length; i++) {
+                if (i == skip) {
+                    continue;
+                }
+                if (previous >= 0) {
+                    final int step = levels[i] - levels[previous];
+                    if (step == 0 || Math.abs(step) > 3 || sign != 0 && Integer.signum(step) != sign) {
+                        return false;
+                    }
+                    sign = Integer.signum(step);
+                }
+                previous = i;
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Corrupted memory of valid instructions, broken instructions and junk that can neither start nor complete an
+     * instruction. Scale is the size in bytes, which may well exceed what a single mapping can hold.
+     */
+    public static final class Day3 implements InputGenerator {
+
+        private static final String JUNK = "xyzmuldon't!@#$%^&*[]{}<>?:;_+- ";
+        private static final String[] BROKEN = {"mul(%d,%d]", "mul[%d,%d)", "mul(%d, %d)", "mul ( %d,%d)",
+                "mul(%d,%d", "mul(%d,", "mul(%d", "do(", "do_()", "don't(", "dont()", "don't[]"};
+        private static final int LINE = 3000;
+
+        @Override
+        public int year() {
+            return 2024;
+        }
+
+        @Override
+        public int day() {
+            return 3;
+        }
+
+        @Override
+        public Answers write(long scale, long seed, Writer out) throws IOException {
+            final SplittableRandom random = new SplittableRandom(seed);
+            final StringBuilder token = new StringBuilder();
+            boolean enabled = true;
+            long all = 0;
+            long enabledSum = 0;
+            long written = 0;
+            long lineLength = 0;
+            while (written < scale) {
+                token.setLength(0);
+                final int kind = random.nextInt(16);
+                if (kind < 4) {
+                    final int a = 1 + random.nextInt(999);
+                    final int b = 1 + random.nextInt(999);
+                    token.append("mul(").append(a).append(',').append(b).append(')');
+                    all += (long) a * b;
+                    if (enabled) {
+                        enabledSum += (long) a * b;
+                    }
+                } else if (kind == 4) {
+                    token.append("do()");
+                    enabled = true;
+                } else if (kind == 5) {
+                    token.append("don't()");
+                    enabled = false;
+                } else if (kind < 8) {
+                    final String broken = BROKEN[random.nextInt(BROKEN.length)];
+                    token.append(String.format(Locale.ROOT, broken, 1 + random.nextInt(999), 1 + random.nextInt(999)));
+                } else {
+                    for (int c = 1 + random.nextInt(6); c > 0; c--) {
+                        token.append(JUNK.charAt(random.nextInt(JUNK.length())));
+                    }
+                }
+                if (lineLength + token.length() >= LINE) {
+                    token.append('\n');
+                    lineLength = 0;
+                } else {
+                    lineLength += token.length();
+                }
+                out.append(token);
+                written += token.length();
+            }
+            return Answers.of(all, enabledSum);
+        }
+    }
+
+    /**
+     * A square grid of 5 by 5 tiles on letters other than X, M, A and S. A tile holds nothing, an XMAS in one of the
+     * eight directions or an X-MAS in one of its four orientations, and its last row and column are kept free so
+     * that no word spans two tiles. Scale is the side length.
+     */
+    public static final class Day4 implements InputGenerator {
+
+        private static final String NOISE = "BCDEFGHIJKLNOPQRTUVWYZ";
+        private static final String[] CROSSES = {"M.S.A.M.S", "M.M.A.S.S", "S.M.A.S.M", "S.S.A.M.M"};
+
+        @Override
+        public int year() {
+            return 2024;
+        }
+
+        @Override
+        public int day() {
+            return 4;
+        }
+
+        @Override
+        public Answers write(long scale, long seed, Writer out) throws IOException {
+            if (scale < 1 || scale > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("side must be in [1, 2^31), was " + scale);
+            }
+            final SplittableRandom random = new SplittableRandom(seed);
+            final int side = (int) scale;
+            final char[][] band = new char[5][side];
+            long words = 0;
+            long crosses = 0;
+            for (int top = 0; top < side; top += band.length) {
+                final int rows = Math.min(band.length, side - top);
+                for (int r = 0; r < rows; r++) {
+                    for (int c = 0; c < side; c++) {
+                        band[r][c] = NOISE.charAt(random.nextInt(NOISE.length()));
+                    }
+                }
+                for (int left = 0; rows == band.length && left + 5 <= side; left += 5) {
+                    switch (random.nextInt(3)) {
+                        case 0 -> {
+                            // an XMAS from the row, column or corner of the start in the direction (dr, dc)
+                            final int dr = random.nextInt(3) - 1;
+                            final int dc = dr == 0 ? (random.nextBoolean() ? 1 : -1) : random.nextInt(3) - 1;
+                            final int row = dr == 0 ? random.nextInt(4) : dr > 0 ? 0 : 3;
+                            final int col = dc == 0 ? random.nextInt(4) : dc > 0 ? 0 : 3;
+                            for (int i = 0; i < 4; i++) {
+                                band[row + i * dr][left + col + i * dc] = "XMAS".charAt(i);
+                            }
+                            words++;
+                        }
+                        case 1 -> {
+                            final String cross = CROSSES[random.nextInt(CROSSES.length)];
+                            final int row = random.nextInt(2);
+                            final int col = random.nextInt(2);
+                            for (int i = 0; i < 9; i++) {
+                                if (cross.charAt(i) != '.') {
+                                    band[row + i / 3][left + col + i % 3] = cross.charAt(i);
+                                }
+                            }
+                            crosses++;
+                        }
+                        default -> {
+                        }
+                    }
+                }
+                for (int r = 0; r < rows; r++) {
+                    out.write(band[r]);
+                    out.write('\n');
+                }
+            }
+            return Answers.of(words, crosses);
+        }
+    }
+
+    /**
+     * Rules ordering every pair of {@code 49} distinct pages, and updates of 5 to 23 of those pages, about half of
+     * them in order. Scale is the number of updates.
+     */
+    public static final class Day5 implements InputGenerator {
+
+        private static final int PAGES = 49;
+
+        @Override
+        public int year() {
+            return 2024;
+        }
+
+        @Override
+        public int day() {
+            return 5;
+        }
+
+        @Override
+        public Answers write(long scale, long seed, Writer out) throws IOException {
+            final SplittableRandom random = new SplittableRandom(seed);
+            // pages in the order of the rules, drawn from the two digit labels
+            final int[] labels = new int[90];
+            for (int i = 0; i < labels.length; i++) {
+                labels[i] = 10 + i;
+            }
+            shuffle(labels, random);
+            final int[] pages = Arrays.copyOf(labels, PAGES);
+            final int[] rank = new int[100];
+            for (int i = 0; i < PAGES; i++) {
+                rank[pages[i]] = i;
+            }
+            final int[] rules = new int[PAGES * (PAGES - 1) / 2];
+            for (int i = 0, r = 0; i < PAGES; i++) {
+                for (int j = i + 1; j < PAGES; j++) {
+                    rules[r++] = pages[i] * 100 + pages[j];
+                }
+            }
+            shuffle(rules, random);
+            for (int rule : rules) {
+                out.append(Integer.toString(rule / 100)).append('|').append(Integer.toString(rule % 100)).append('\n');
+            }
+            out.write('\n');
+            final StringBuilder line = new StringBuilder();
+            final int[] candidates = pages.clone();
+            long ordered = 0;
+            long reordered = 0;
+            for (long n = 0; n < scale; n++) {
+                final int length = 5 + 2 * random.nextInt(10);
+                for (int i = 0; i < length; i++) {
+                    final int j = i + random.nextInt(PAGES - i);
+                    final int page = candidates[i];
+                    candidates[i] = candidates[j];
+                    candidates[j] = page;
+                }
+                final int[] update = Arrays.copyOf(candidates, length);
+                final int[] sorted = Arrays.stream(update).boxed()
+                        .sorted((a, b) -> Integer.compare(rank[a], rank[b]))
+                        .mapToInt(Integer::intValue).toArray();
+                final int[] printed = random.nextBoolean() ? sorted : update;
+                line.setLength(0);
+                for (int i = 0; i < length; i++) {
+                    line.append(i > 0 ? "," : "").append(printed[i]);
+                }
+                out.append(line).append('\n');
+                if (Arrays.equals(printed, sorted)) {
+                    ordered += sorted[length / 2];
+                } else {
+                    reordered += sorted[length / 2];
+                }
+            }
+            return Answers.of(ordered, reordered);
+        }
+    }
+
+    /**
+     * The SplitMix64 finalizer.
+     */
+    static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
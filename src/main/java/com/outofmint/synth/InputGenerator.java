@@ -0,0 +1,42 @@
+package com.outofmint.synth;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Generates valid puzzle input of arbitrary size for one day, deterministically from a seed.
+ * <p>
+ * Input is written as it is generated, so its size is not limited by memory, and generators derive the answers
+ * along the way wherever the construction of the input allows it.
+ */
+public interface InputGenerator {
+
+    int year();
+
+    int day();
+
+    /**
+     * Writes an input.
+     *
+     * @param scale the size of the input in the generator's natural unit, e.g. lines or grid rows
+     * @param seed  the seed; the same scale and seed always give the same input
+     * @return the answers known for the input
+     */
+    Answers write(long scale, long seed, Writer out) throws IOException;
+
+    default Answers write(long scale, long seed, Path file) throws IOException {
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(file),
+                StandardCharsets.US_ASCII), 1 << 16)) {
+            return write(scale, seed, out);
+        }
+    }
+
+    default String name() {
+        return year() + "/" + day();
+    }
+}
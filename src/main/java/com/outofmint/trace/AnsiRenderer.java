@@ -0,0 +1,58 @@
+package com.outofmint.trace;
+
+import com.outofmint.grid.Grid;
+
+import java.io.IOException;
+
+/**
+ * Renders frames for a terminal, highlighting with ANSI escape sequences.
+ */
+public final class AnsiRenderer implements TraceRenderer {
+
+    static final String ANSI_RED = "\u001B[31m";
+    static final String ANSI_RED_BG = "\u001B[41m";
+    static final String ANSI_GREEN_BG = "\u001B[42m";
+    static final String ANSI_YELLOW_BG = "\u001B[43m";
+    static final String ANSI_RESET = "\u001B[0m";
+
+    @Override
+    public void render(TraceEvent event, Appendable out) throws IOException {
+        if (event instanceof TraceEvent.Cell cell) {
+            renderCell(cell, out);
+        } else if (event instanceof TraceEvent.Spans spans) {
+            renderSpans(spans, out);
+        }
+    }
+
+    private static void renderCell(TraceEvent.Cell cell, Appendable out) throws IOException {
+        final Grid grid = cell.grid();
+        final String color = switch (cell.mark()) {
+            case CANDIDATE -> ANSI_YELLOW_BG;
+            case MISS -> ANSI_RED_BG;
+            case MATCH -> ANSI_GREEN_BG;
+        };
+        out.append("=".repeat(grid.cols())).append('\n');
+        for (int row = 0; row < grid.rows(); row++) {
+            for (int col = 0; col < grid.cols(); col++) {
+                if (row == cell.row() && col == cell.col()) {
+                    out.append(color).append((char) grid.get(row, col)).append(ANSI_RESET);
+                } else {
+                    out.append((char) grid.get(row, col));
+                }
+            }
+            out.append('\n');
+        }
+        out.append("=".repeat(grid.cols())).append('\n');
+    }
+
+    private static void renderSpans(TraceEvent.Spans spans, Appendable out) throws IOException {
+        final String text = spans.text();
+        final int[] bounds = spans.bounds();
+        int last = 0;
+        for (int i = 0; i + 1 < bounds.length; i += 2) {
+            out.append(text, last, bounds[i]).append(ANSI_RED).append(text, bounds[i], bounds[i + 1]).append(ANSI_RESET);
+            last = bounds[i + 1];
+        }
+        out.append(text, last, text.length()).append('\n');
+    }
+}
@@ -0,0 +1,110 @@
+package com.outofmint.trace;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Renders events on a background thread and writes the frames to a file.
+ * <p>
+ * Events are handed over through a bounded queue, so emitting only blocks when the renderer falls behind by more
+ * than {@code capacity} events, and never once the renderer has stopped: if rendering fails, later events are
+ * dropped and {@link #close()} throws the failure. Closing the sink drains the queue and closes the file.
+ */
+public final class AsyncFileSink implements TraceSink {
+
+    private static final Logger log = LoggerFactory.getLogger(AsyncFileSink.class);
+
+    /**
+     * Marks the end of the event stream for the renderer thread.
+     */
+    private static final TraceEvent END = new TraceEvent.Spans("");
+
+    /**
+     * How long a blocked emitter waits before checking again whether the renderer is still running.
+     */
+    private static final long OFFER_MILLIS = 100;
+
+    private final BlockingQueue<TraceEvent> queue;
+    private final Thread renderer;
+    private volatile IOException failure;
+    private volatile boolean stopped;
+    private boolean closed;
+
+    public AsyncFileSink(Path file, TraceRenderer renderer, int capacity) throws IOException {
+        final Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.renderer = new Thread(() -> render(renderer, out), "trace-renderer");
+        this.renderer.setDaemon(true);
+        this.renderer.start();
+    }
+
+    @Override
+    public void accept(TraceEvent event) {
+        offer(event);
+    }
+
+    /**
+     * Queues the event, waiting for room as long as the renderer is running.
+     */
+    private void offer(TraceEvent event) {
+        try {
+            while (!stopped && !queue.offer(event, OFFER_MILLIS, TimeUnit.MILLISECONDS)) {
+                // the renderer is behind, wait for it
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        offer(END);
+        try {
+            renderer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private void render(TraceRenderer renderer, Writer out) {
+        try (out) {
+            renderer.begin(out);
+            TraceEvent event;
+            while ((event = queue.take()) != END) {
+                renderer.render(event, out);
+            }
+            renderer.end(out);
+        } catch (IOException e) {
+            fail(e);
+        } catch (RuntimeException e) {
+            fail(new IOException("rendering trace failed", e));
+        } catch (InterruptedException e) {
+            fail(new IOException("trace renderer interrupted", e));
+        } finally {
+            // emitters stop waiting for room, and the events they queued meanwhile are discarded
+            stopped = true;
+            queue.clear();
+        }
+    }
+
+    private void fail(IOException e) {
+        failure = e;
+        log.error("rendering trace failed", e);
+    }
+}
@@ -0,0 +1,97 @@
+package com.outofmint.trace;
+
+import com.outofmint.grid.Grid;
+
+import java.io.IOException;
+
+/**
+ * Renders frames as a standalone HTML page, one {@code <pre>} block per frame.
+ */
+public final class HtmlRenderer implements TraceRenderer {
+
+    @Override
+    public void begin(Appendable out) throws IOException {
+        out.append("""
+                <!DOCTYPE html>
+                <html>
+                <head>
+                <meta charset="utf-8">
+                <style>
+                body { background: #111; color: #ccc; font-family: monospace; }
+                pre { border-top: 1px solid #444; padding-top: 0.5em; }
+                .candidate { background: #a80; }
+                .miss { background: #a00; }
+                .match { background: #0a0; }
+                .span { color: #f44; }
+                </style>
+                </head>
+                <body>
+                """);
+    }
+
+    @Override
+    public void render(TraceEvent event, Appendable out) throws IOException {
+        out.append("<pre>");
+        if (event instanceof TraceEvent.Cell cell) {
+            renderCell(cell, out);
+        } else if (event instanceof TraceEvent.Spans spans) {
+            renderSpans(spans, out);
+        }
+        out.append("</pre>\n");
+    }
+
+    @Override
+    public void end(Appendable out) throws IOException {
+        out.append("</body>\n</html>\n");
+    }
+
+    private static void renderCell(TraceEvent.Cell cell, Appendable out) throws IOException {
+        final Grid grid = cell.grid();
+        final String cssClass = switch (cell.mark()) {
+            case CANDIDATE -> "candidate";
+            case MISS -> "miss";
+            case MATCH -> "match";
+        };
+        for (int row = 0; row < grid.rows(); row++) {
+            for (int col = 0; col < grid.cols(); col++) {
+                if (row == cell.row() && col == cell.col()) {
+                    out.append("<span class=\"").append(cssClass).append("\">");
+                    escape((char) grid.get(row, col), out);
+                    out.append("</span>");
+                } else {
+                    escape((char) grid.get(row, col), out);
+                }
+            }
+            out.append('\n');
+        }
+    }
+
+    private static void renderSpans(TraceEvent.Spans spans, Appendable out) throws IOException {
+        final String text = spans.text();
+        final int[] bounds = spans.bounds();
+        int last = 0;
+        for (int i = 0; i + 1 < bounds.length; i += 2) {
+            escape(text, last, bounds[i], out);
+            out.append("<span class=\"span\">");
+            escape(text, bounds[i], bounds[i + 1], out);
+            out.append("</span>");
+            last = bounds[i + 1];
+        }
+        escape(text, last, text.length(), out);
+    }
+
+    private static void escape(String text, int from, int to, Appendable out) throws IOException {
+        for (int i = from; i < to; i++) {
+            escape(text.charAt(i), out);
+        }
+    }
+
+    private static void escape(char c, Appendable out) throws IOException {
+        switch (c) {
+            case '<' -> out.append("&lt;");
+            case '>' -> out.append("&gt;");
+            case '&' -> out.append("&amp;");
+            default -> out.append(c);
+        }
+    }
+}
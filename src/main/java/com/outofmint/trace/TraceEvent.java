@@ -0,0 +1,43 @@
+package com.outofmint.trace;
+
+import com.outofmint.grid.Grid;
+
+/**
+ * A structured event emitted by a solver for visual debugging. Events only carry the raw data; turning them into
+ * text is left to a {@link TraceRenderer} running after the fact.
+ */
+public sealed interface TraceEvent permits TraceEvent.Cell, TraceEvent.Spans {
+
+    /**
+     * How a visited grid cell is highlighted.
+     */
+    enum Mark {
+        /**
+         * A cell a search starts from.
+         */
+        CANDIDATE,
+        /**
+         * A cell no search starts from.
+         */
+        MISS,
+        /**
+         * A cell that is part of a match.
+         */
+        MATCH
+    }
+
+    /**
+     * A grid cell visited by a search, rendered as a frame of the whole grid with the cell highlighted.
+     */
+    record Cell(Grid grid, int row, int col, Mark mark) implements TraceEvent {
+    }
+
+    /**
+     * A line of text with highlighted spans, e.g. the digits found in a calibration line.
+     *
+     * @param text   the text
+     * @param bounds pairs of span start and end offsets into the text, sorted and non-overlapping
+     */
+    record Spans(String text, int... bounds) implements TraceEvent {
+    }
+}
@@ -0,0 +1,17 @@
+package com.outofmint.trace;
+
+import java.io.IOException;
+
+/**
+ * Renders trace events as text frames.
+ */
+public interface TraceRenderer {
+
+    default void begin(Appendable out) throws IOException {
+    }
+
+    void render(TraceEvent event, Appendable out) throws IOException;
+
+    default void end(Appendable out) throws IOException {
+    }
+}
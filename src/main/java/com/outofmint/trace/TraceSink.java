@@ -0,0 +1,16 @@
+package com.outofmint.trace;
+
+import java.io.IOException;
+
+/**
+ * Receives the events of an installed {@link Tracer}.
+ */
+@FunctionalInterface
+public interface TraceSink extends AutoCloseable {
+
+    void accept(TraceEvent event);
+
+    @Override
+    default void close() throws IOException {
+    }
+}
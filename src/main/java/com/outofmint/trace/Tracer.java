@@ -0,0 +1,80 @@
+package com.outofmint.trace;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Global entry point for trace events.
+ * <p>
+ * Solvers check {@link #enabled()} before building an event, so with no sink installed tracing costs a single field
+ * read per check:
+ * <pre>
+ * if (Tracer.enabled()) {
+ *     Tracer.emit(new TraceEvent.Cell(grid, row, col, TraceEvent.Mark.MATCH));
+ * }
+ * </pre>
+ */
+public final class Tracer {
+
+    private static volatile Installation installation;
+
+    private Tracer() {
+    }
+
+    public static boolean enabled() {
+        return installation != null;
+    }
+
+    /**
+     * Passes the event to the installed sink, subject to sampling. Does nothing if no sink is installed.
+     */
+    public static void emit(TraceEvent event) {
+        final Installation current = installation;
+        if (current != null && current.counter.getAndIncrement() % current.sampleEvery == 0) {
+            current.sink.accept(event);
+        }
+    }
+
+    /**
+     * Installs a sink receiving every {@code sampleEvery}-th event.
+     *
+     * @return a handle uninstalling and closing the sink
+     * @throws IllegalStateException if a sink is installed already, which has to be closed first
+     */
+    public static synchronized Installation install(TraceSink sink, long sampleEvery) {
+        if (sampleEvery < 1) {
+            throw new IllegalArgumentException("sampleEvery must be positive: " + sampleEvery);
+        }
+        if (installation != null) {
+            throw new IllegalStateException("a trace sink is installed already");
+        }
+        final Installation installed = new Installation(sink, sampleEvery);
+        installation = installed;
+        return installed;
+    }
+
+    /**
+     * An installed sink.
+     */
+    public static final class Installation implements AutoCloseable {
+
+        private final TraceSink sink;
+        private final long sampleEvery;
+        private final AtomicLong counter = new AtomicLong();
+
+        private Installation(TraceSink sink, long sampleEvery) {
+            this.sink = sink;
+            this.sampleEvery = sampleEvery;
+        }
+
+        @Override
+        public void close() throws IOException {
+            synchronized (Tracer.class) {
+                if (installation == this) {
+                    installation = null;
+                }
+            }
+            sink.close();
+        }
+    }
+}
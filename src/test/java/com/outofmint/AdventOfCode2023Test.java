@@ -1,37 +1,44 @@
 package com.outofmint;
 
+import com.outofmint.aoc2023.CompiledAlmanac;
+import com.outofmint.aoc2023.Day1;
+import com.outofmint.aoc2023.Day2;
+import com.outofmint.aoc2023.Day3;
+import com.outofmint.aoc2023.Day4;
+import com.outofmint.aoc2023.Day5;
+import com.outofmint.aoc2023.IntervalMapper;
+import com.outofmint.trace.TracerTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.api.parallel.ResourceAccessMode;
+import org.junit.jupiter.api.parallel.ResourceLock;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Duration;
-import java.time.Instant;
-import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
-import java.util.Objects;
+import java.util.Random;
 import java.util.Set;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
+import static com.outofmint.TestInputs.input;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 
+@ResourceLock(value = TracerTest.TRACER, mode = ResourceAccessMode.READ)
 public class AdventOfCode2023Test {
 
-    private static final Logger log = LoggerFactory.getLogger(AdventOfCode2023Test.class);
-    public static final String ANSI_RED = "\u001B[31m";
-    public static final String ANSI_RESET = "\u001B[0m";
-
     public static Stream<Arguments> test_day1Part1() {
         return Stream.of(
                 Arguments.of("/2023/day1-example1.txt", 142),
@@ -41,39 +48,8 @@ public class AdventOfCode2023Test {
 
     @ParameterizedTest
     @MethodSource
-    public void test_day1Part1(final String inputSource, final int exCalibrationValueChecksum) {
-        Pattern digit = Pattern.compile("\\d");
-        try (BufferedReader r = new BufferedReader(new InputStreamReader(
-                Objects.requireNonNull(AdventOfCode2023Test.class.getResourceAsStream(inputSource))))) {
-            String line;
-            int calibrationValueChecksum = 0;
-            while ((line = r.readLine()) != null) {
-                final Matcher matcher = digit.matcher(line);
-                String first = null;
-                String last = null;
-                while (matcher.find()) {
-                    final String current = matcher.group();
-                    if (first == null) {
-                        first = current;
-                    }
-                    last = current;
-                }
-                if (first != null && last != null) {
-                    String calibrationValue = first.concat(last);
-                    log.info("line: {}", line);
-                    log.info("  first: {}", first);
-                    log.info("  last: {}", last);
-                    log.info("  calibration value: {}", calibrationValue);
-                    calibrationValueChecksum += Integer.parseInt(calibrationValue);
-                } else {
-                    throw new RuntimeException("line: " + line + "\n\tdid not contain calibration values");
-                }
-            }
-            log.info("Calibration value checksum: {}", calibrationValueChecksum);
-            assertEquals(exCalibrationValueChecksum, calibrationValueChecksum);
-        } catch (IOException e) {
-            throw new RuntimeException(e);
-        }
+    public void test_day1Part1(final String inputSource, final int exCalibrationValueChecksum) throws IOException {
+        assertEquals(exCalibrationValueChecksum, new Day1.Part1().solve(input(inputSource)));
     }
 
     public static Stream<Arguments> test_day1Part2() {
@@ -86,148 +62,41 @@ public class AdventOfCode2023Test {
 
     @ParameterizedTest
     @MethodSource
-    public void test_day1Part2(final String inputResource, final int exCalibrationValueChecksum) {
-        Pattern digit = Pattern.compile("(\\d|one|two|three|four|five|six|seven|eight|nine)");
-        try (BufferedReader r = new BufferedReader(new InputStreamReader(
-                Objects.requireNonNull(AdventOfCode2023Test.class.getResourceAsStream(inputResource))))) {
-            String line;
-            int calibrationValueChecksum = 0;
-            int lines = 0;
-            while ((line = r.readLine()) != null) {
-                final Matcher matcher = digit.matcher(line);
-                String first = null;
-                int firstStart = 0;
-                int firstEnd = 0;
-                String last = null;
-                int lastStart = 0;
-                int lastEnd = 0;
-                int matchIndex = 0;
-                while (matcher.find(matchIndex)) {
-                    final String current = matcher.group();
-                    matchIndex = matcher.start() + 1;
-                    if (first == null) {
-                        first = current;
-                        firstStart = matcher.start();
-                        firstEnd = matcher.end();
-                    }
-                    last = current;
-                    lastStart = matcher.start();
-                    lastEnd = matcher.end();
-                }
-
-                if (first != null && last != null) {
-                    if (firstEnd >= lastStart) {
-                        line = line.substring(0, firstStart)
-                                .concat(ANSI_RED)
-                                .concat(line.substring(firstStart, lastEnd))
-                                .concat(ANSI_RESET)
-                                .concat(line.substring(lastEnd));
-                    } else {
-                        line = line.substring(0, firstStart)
-                                .concat(ANSI_RED)
-                                .concat(line.substring(firstStart, firstEnd))
-                                .concat(ANSI_RESET)
-                                .concat(line.substring(firstEnd, lastStart))
-                                .concat(ANSI_RED)
-                                .concat(line.substring(lastStart, lastEnd))
-                                .concat(ANSI_RESET)
-                                .concat(line.substring(lastEnd));
-                    }
-                    log.info("line: {}", line);
-                    first = translateLiteralNumber(first);
-                    last = translateLiteralNumber(last);
-                    String calibrationValue = first.concat(last);
-                    log.info("  calibration value: {}", calibrationValue);
-                    calibrationValueChecksum += Integer.parseInt(calibrationValue);
-                    lines++;
-                } else {
-                    throw new RuntimeException("line: " + line + "\n\tdid not contain calibration values");
-                }
-            }
-            log.info("Processed {} lines", lines);
-            log.info("Calibration value checksum: {}", calibrationValueChecksum);
-            assertEquals(exCalibrationValueChecksum, calibrationValueChecksum);
-        } catch (IOException e) {
-            throw new RuntimeException(e);
-        }
+    public void test_day1Part2(final String inputResource, final int exCalibrationValueChecksum) throws IOException {
+        assertEquals(exCalibrationValueChecksum, new Day1.Part2().solve(input(inputResource)));
     }
 
-    private String translateLiteralNumber(String number) {
-        return switch (number) {
-            case "one" -> "1";
-            case "two" -> "2";
-            case "three" -> "3";
-            case "four" -> "4";
-            case "five" -> "5";
-            case "six" -> "6";
-            case "seven" -> "7";
-            case "eight" -> "8";
-            case "nine" -> "9";
-            default -> number;
-        };
-    }
-
-    public static Stream<Arguments> test_day2() {
+    public static Stream<Arguments> test_day1Part2Line() {
         return Stream.of(
-                Arguments.of("/2023/day2-example.txt", 12, 13, 14, 8, 2286),
-                Arguments.of("/2023/day2.txt", 12, 13, 14, 2169, 60948)
+                Arguments.of("oneight", 18),
+                Arguments.of("twone", 21),
+                Arguments.of("eighthree", 83),
+                Arguments.of("sevenine", 79),
+                Arguments.of("7pqrstsixteen", 76),
+                Arguments.of("nineninenine", 99),
+                Arguments.of("xone\r\n", 11),
+                Arguments.of("ninetwoneight\n", 98)
         );
     }
 
     @ParameterizedTest
     @MethodSource
-    public void test_day2(String inputResource, int numRed, int numGreen, int numBlue, int exGameIdChecksum, int exPowerOfCubesChecksum) {
-        try (BufferedReader r = new BufferedReader(new InputStreamReader(
-                Objects.requireNonNull(AdventOfCode2023Test.class.getResourceAsStream(inputResource))))) {
-            String line;
-            int gameIdChecksum = 0;
-            int powerOfCubesChecksum = 0;
-            while ((line = r.readLine()) != null) {
-                String[] game = line.split(": ");
-                int gameId = Integer.parseInt(game[0].replace("Game ", ""));
-                String[] sets = game[1].split("; ");
-                int maxRed = 0;
-                int maxGreen = 0;
-                int maxBlue = 0;
-                for (String set : sets) {
-                    String[] colors = set.split(", ");
-                    int red = 0;
-                    int green = 0;
-                    int blue = 0;
-                    for (String color : colors) {
-                        String[] colorParts = color.split(" ");
-                        switch (colorParts[1]) {
-                            case "red" -> red = Integer.parseInt(colorParts[0]);
-                            case "green" -> green = Integer.parseInt(colorParts[0]);
-                            case "blue" -> blue = Integer.parseInt(colorParts[0]);
-                            default -> throw new RuntimeException("unknown color");
-                        }
-                    }
-                    maxRed = Math.max(red, maxRed);
-                    maxGreen = Math.max(green, maxGreen);
-                    maxBlue = Math.max(blue, maxBlue);
-                }
-                boolean possible = maxRed <= numRed && maxGreen <= numGreen && maxBlue <= numBlue;
-                log.info("{}", line);
-                log.info("  max: {} red, {} green, {} blue -> {}", highlightIfGreater(maxRed, numRed), highlightIfGreater(maxGreen, numGreen), highlightIfGreater(maxBlue, numBlue), possible ? "possible" : highlight("impossible"));
-                if (possible) {
-                    gameIdChecksum += gameId;
-                }
-                powerOfCubesChecksum += (maxRed * maxGreen * maxBlue);
-            }
-            assertEquals(exGameIdChecksum, gameIdChecksum);
-            assertEquals(exPowerOfCubesChecksum, powerOfCubesChecksum);
-        } catch (IOException e) {
-            throw new RuntimeException(e);
-        }
+    public void test_day1Part2Line(String line, int exCalibrationValue, @TempDir Path dir) throws IOException {
+        assertEquals(exCalibrationValue, new Day1.Part2().solve(Files.writeString(dir.resolve("line.txt"), line)));
     }
 
-    private static String highlightIfGreater(int current, int allowedMax) {
-        return current > allowedMax ? highlight(Integer.toString(current).concat(" (> ").concat(Integer.toString(allowedMax)).concat(")")) : Integer.toString(current);
+    public static Stream<Arguments> test_day2() {
+        return Stream.of(
+                Arguments.of("/2023/day2-example.txt", 8, 2286),
+                Arguments.of("/2023/day2.txt", 2169, 60948)
+        );
     }
 
-    private static String highlight(String text) {
-        return ANSI_RED.concat(text).concat(ANSI_RESET);
+    @ParameterizedTest
+    @MethodSource
+    public void test_day2(String inputResource, int exGameIdChecksum, int exPowerOfCubesChecksum) throws IOException {
+        assertEquals(exGameIdChecksum, new Day2.Part1().solve(input(inputResource)));
+        assertEquals(exPowerOfCubesChecksum, new Day2.Part2().solve(input(inputResource)));
     }
 
     public static Stream<Arguments> test_day3() {
@@ -239,69 +108,17 @@ public class AdventOfCode2023Test {
 
     @ParameterizedTest
     @MethodSource
-    public void test_day3(String inputResource, int exPartNumbersSum, int exGearRatioSum) {
-        Pattern symbol = Pattern.compile("[@#$%&*+=\\-/]");
-        try (BufferedReader r = new BufferedReader(new InputStreamReader(
-                Objects.requireNonNull(AdventOfCode2023Test.class.getResourceAsStream(inputResource))))) {
-            String previous = null;
-            String current = null;
-            String next;
-            int partNumbersSum = 0;
-            int gearRatioSum = 0;
-            do {
-                next = r.readLine();
-                if (current != null) {
-                    Matcher symbolMatcher = symbol.matcher(current);
-                    List<Integer> prevLineNumbers = List.of();
-                    List<Integer> curLineNumbers = List.of();
-                    List<Integer> nextLineNumbers = List.of();
-                    while (symbolMatcher.find()) {
-                        int symbolPos = symbolMatcher.start();
-                        if (previous != null) {
-                            prevLineNumbers = extractAdjacentPartNumbers(previous, symbolPos);
-                            partNumbersSum += prevLineNumbers.stream()
-                                    .mapToInt(a -> a)
-                                    .sum();
-                        }
-                        curLineNumbers = extractAdjacentPartNumbers(current, symbolPos);
-                        partNumbersSum += curLineNumbers.stream()
-                                .mapToInt(a -> a)
-                                .sum();
-                        if (next != null) {
-                            nextLineNumbers = extractAdjacentPartNumbers(next, symbolPos);
-                            partNumbersSum += nextLineNumbers.stream()
-                                    .mapToInt(a -> a)
-                                    .sum();
-                        }
-                        List<Integer> adjacentPartNumbers = new ArrayList<>();
-                        adjacentPartNumbers.addAll(prevLineNumbers);
-                        adjacentPartNumbers.addAll(curLineNumbers);
-                        adjacentPartNumbers.addAll(nextLineNumbers);
-                        if ("*".equals(symbolMatcher.group()) && adjacentPartNumbers.size() == 2) {
-                            gearRatioSum += adjacentPartNumbers.get(0) * adjacentPartNumbers.get(1);
-                        }
-                    }
-                }
-                previous = current;
-                current = next;
-            } while (current != null);
-            assertEquals(exPartNumbersSum, partNumbersSum);
-            assertEquals(exGearRatioSum, gearRatioSum);
-        } catch (IOException e) {
-            throw new RuntimeException(e);
-        }
+    public void test_day3(String inputResource, int exPartNumbersSum, int exGearRatioSum) throws IOException {
+        assertEquals(exPartNumbersSum, new Day3.Part1().solve(input(inputResource)));
+        assertEquals(exGearRatioSum, new Day3.Part2().solve(input(inputResource)));
     }
 
-    private static List<Integer> extractAdjacentPartNumbers(String line, int symbolPos) {
-        Pattern number = Pattern.compile("\\d+");
-        List<Integer> adjacentPartNumbers = new ArrayList<>();
-        Matcher prevNumberMatcher = number.matcher(line);
-        while (prevNumberMatcher.find()) {
-            if (symbolPos >= (prevNumberMatcher.start()) - 1 && symbolPos <= (prevNumberMatcher.end())) {
-                adjacentPartNumbers.add(Integer.parseInt(prevNumberMatcher.group()));
-            }
-        }
-        return adjacentPartNumbers;
+    @Test
+    public void test_day3SharedNumbers(@TempDir Path dir) throws IOException {
+        // 467 and 35 touch two symbols each but are single part numbers; only the second gear touches two numbers
+        final Path file = Files.writeString(dir.resolve("day3.txt"), "467*..\n...#..\n..35*.\n....12\n");
+        assertEquals(467 + 35 + 12, new Day3.Part1().solve(file));
+        assertEquals(35 * 12, new Day3.Part2().solve(file));
     }
 
     public static Stream<Arguments> test_day4() {
@@ -313,70 +130,66 @@ public class AdventOfCode2023Test {
 
     @ParameterizedTest
     @MethodSource
-    public void test_day4(String inputResource, int exCardPointSum, int exTotalNumScratchcards) {
-        try (BufferedReader r = new BufferedReader(new InputStreamReader(
-                Objects.requireNonNull(AdventOfCode2023Test.class.getResourceAsStream(inputResource))))) {
-            String line;
-            int cardPointSum = 0;
-            Map<Integer, Integer> copies = new HashMap<>();
-            int currentCard = 0;
-            while ((line = r.readLine()) != null) {
-                final String[] card = line.split(": ");
-                final String[] numbers = card[1].split(" \\| ");
-                final Set<String> winningNumbers = Set.of(
-                        numbers[0].trim().split(" +(?=\\d)")
-                );
-                final Set<String> myNumbers = Set.of(
-                        numbers[1].trim().split(" +(?=\\d)")
-                );
-                final Set<String> matching = myNumbers.stream()
-                        .filter(winningNumbers::contains)
-                        .collect(Collectors.toUnmodifiableSet());
-
-                final long matches = matching.size();
-                cardPointSum += ((int) Math.pow(2, (matches - 1)));
-
-                copies.put(currentCard, (copies.getOrDefault(currentCard, 0) + 1));
-
-                String outputLine = card[0]
-                        .concat(": ")
-                        .concat(winningNumbers.stream()
-                                .mapToInt(Integer::parseInt)
-                                .sorted()
-                                .mapToObj(Integer::toString)
-                                .map(s -> String.format("%1$2s", s))
-                                .collect(Collectors.joining(" ")))
-                        .concat(" | ")
-                        .concat(myNumbers.stream()
-                                .mapToInt(Integer::parseInt)
-                                .sorted()
-                                .mapToObj(Integer::toString)
-                                .map(s -> String.format("%1$2s", s))
-                                .collect(Collectors.joining(" ")))
-                        .concat(" => ")
-                        .concat(Integer.toString(copies.get(currentCard)))
-                        .concat(" copies");
-                for (String m : matching) {
-                    outputLine = outputLine.replaceAll("(?<=\\s)+" + m + "((?=\\s+)|(?=$))", highlight(m));
-                }
-                log.info("{}", outputLine);
-                log.debug("  {}", line);
-
-                log.debug("  current card total: {}", copies.get(currentCard));
-
-                for (int i = currentCard + 1; i <= currentCard + matches; i++) {
-                    copies.put(i, (copies.getOrDefault(i, 0) + copies.get(currentCard)));
-                    log.debug("  upcoming card {} total: {}", i, copies.get(i));
-                }
-                currentCard++;
+    public void test_day4(String inputResource, int exCardPointSum, int exTotalNumScratchcards) throws IOException {
+        assertEquals(exCardPointSum, new Day4.Part1().solve(input(inputResource)));
+        assertEquals(exTotalNumScratchcards, new Day4.Part2().solve(input(inputResource)));
+    }
 
-                log.debug("");
+    @Test
+    public void test_day4CardStream(@TempDir Path dir) throws IOException {
+        // checks the masks and the copy ring buffer against sets and a copy per card; every 40 cards end with 10 cards
+        // without matches, which no card can win past, so that the copies stay within a long
+        final Random random = new Random(4);
+        final int numCards = 20_000;
+        final int[] matches = new int[numCards];
+        final StringBuilder text = new StringBuilder();
+        for (int card = 0; card < numCards; card++) {
+            final int[] numbers = random.ints(0, 128).distinct().limit(35).toArray();
+            final Set<Integer> winning = new HashSet<>();
+            text.append("Card ").append(card + 1).append(':');
+            for (int i = 0; i < 10; i++) {
+                winning.add(numbers[i]);
+                text.append(' ').append(numbers[i]);
+            }
+            text.append(" |");
+            for (int i = card % 40 < 30 ? random.nextInt(10) : 10; i < 35; i++) {
+                matches[card] += winning.contains(numbers[i]) ? 1 : 0;
+                text.append(' ').append(numbers[i]);
             }
-            assertEquals(exCardPointSum, cardPointSum);
-            assertEquals(exTotalNumScratchcards, copies.values().stream().mapToInt(i -> i).sum());
-        } catch (IOException e) {
-            throw new RuntimeException(e);
+            text.append('\n');
         }
+        long exPoints = 0;
+        final long[] copies = new long[numCards];
+        Arrays.fill(copies, 1);
+        for (int card = 0; card < numCards; card++) {
+            exPoints += matches[card] > 0 ? 1L << (matches[card] - 1) : 0;
+            for (int i = card + 1; i <= card + matches[card] && i < numCards; i++) {
+                copies[i] = Math.addExact(copies[i], copies[card]);
+            }
+        }
+        final Path file = Files.writeString(dir.resolve("day4.txt"), text);
+        assertEquals(exPoints, new Day4.Part1().solve(file));
+        assertEquals(Arrays.stream(copies).sum(), new Day4.Part2().solve(file));
+    }
+
+    @Test
+    public void test_day4PointsOverflow(@TempDir Path dir) throws IOException {
+        assertEquals(1L << 62, new Day4.Part1().solve(Files.writeString(dir.resolve("scored.txt"), card(63))));
+        final Path overflowing = Files.writeString(dir.resolve("overflowing.txt"), card(64));
+        assertThrows(ArithmeticException.class, () -> new Day4.Part1().solve(overflowing));
+        // the copies of cards with two matches each grow like the Fibonacci numbers and overflow after about 90 cards
+        final Path copies = Files.writeString(dir.resolve("copies.txt"), card(2).repeat(100));
+        assertThrows(ArithmeticException.class, () -> new Day4.Part2().solve(copies));
+        assertEquals(4052739537820L, new Day4.Part2().solve(Files.writeString(dir.resolve("fewer.txt"),
+                card(2).repeat(58))));
+    }
+
+    /**
+     * @return a card with the given number of matches
+     */
+    private static String card(int matches) {
+        final String numbers = IntStream.range(0, matches).mapToObj(Integer::toString).collect(Collectors.joining(" "));
+        return "Card 1: " + numbers + " | " + numbers + "\n";
     }
 
     public static Stream<Arguments> test_day5() {
@@ -388,100 +201,66 @@ public class AdventOfCode2023Test {
 
     @ParameterizedTest
     @MethodSource("test_day5")
-    public void test_day5_part1(String inputResource, int exMinLocation) {
-        try (BufferedReader r = new BufferedReader(new InputStreamReader(
-                Objects.requireNonNull(AdventOfCode2023Test.class.getResourceAsStream(inputResource))))) {
-            String line;
-            List<Long> seeds = null;
-            Map<String, List<Long[]>> mappings = new HashMap<>();
-            while ((line = r.readLine()) != null) {
-                if (!line.isBlank())
-                    // handle section header
-                    if (line.contains(":")) {
-                        final String section = line.split(":\\s*")[0];
-                        switch (section) {
-                            case "seeds":
-                                seeds = Stream.of(line.split(":\\s*")[1].trim().split("\\s"))
-                                        .map(Long::parseLong)
-                                        .toList();
-                                break;
-                            case "seed-to-soil map":
-                            case "soil-to-fertilizer map":
-                            case "fertilizer-to-water map":
-                            case "water-to-light map":
-                            case "light-to-temperature map":
-                            case "temperature-to-humidity map":
-                            case "humidity-to-location map":
-                                handleMapping(mappings, section, r);
-                                break;
-                            default:
-                                throw new RuntimeException("unknown section " + section);
-                        }
-                    }
-            }
-            long minLocation = Long.MAX_VALUE;
-            long numSeeds = seeds.size();
-            log.info("expected seed mappings: {}", numSeeds);
-            long sc = 1;
-            Instant start = Instant.now();
-            for (long seed : seeds) {
-                final Long soil = mapToDestination(seed, mappings.get("seed-to-soil map"));
-                final Long fertilizer = mapToDestination(soil, mappings.get("soil-to-fertilizer map"));
-                final Long water = mapToDestination(fertilizer, mappings.get("fertilizer-to-water map"));
-                final Long light = mapToDestination(water, mappings.get("water-to-light map"));
-                final Long temp = mapToDestination(light, mappings.get("light-to-temperature map"));
-                final Long humidity = mapToDestination(temp, mappings.get("temperature-to-humidity map"));
-                long location = mapToDestination(humidity, mappings.get("humidity-to-location map"));
-                minLocation = Math.min(minLocation, location);
+    public void test_day5_part1(String inputResource, int exMinLocation) throws IOException {
+        assertEquals(exMinLocation, new Day5.Part1().solve(input(inputResource)));
+    }
 
-                final Duration elapsed = Duration.between(start, Instant.now());
-                final double progress = (((double) sc++) / numSeeds) * 100;
-                final Duration ttc =
-                        Duration.ofMillis(Math.round((((double) elapsed.toMillis()) / progress) * (100 - progress)));
-                log.info("seed {} ===> location {}, {}%, elapsed {}s, ttc {}s", seed, location, String.format("%" +
-                        ".0f", progress), elapsed, ttc);
-            }
-            assertEquals(exMinLocation, minLocation);
-        } catch (IOException e) {
-            throw new RuntimeException(e);
-        }
+    @ParameterizedTest
+    @MethodSource("test_day5")
+    public void test_day5_part1Intervals(String inputResource, int exMinLocation) throws IOException {
+        final Day5.Almanac almanac = new Day5.Part1().parse(input(inputResource));
+        final List<long[]> seeds = almanac.seeds().stream().map(seed -> new long[]{seed, seed + 1}).toList();
+        assertEquals(exMinLocation, IntervalMapper.minLocation(seeds, almanac.mappings()));
+    }
+
+    public static Stream<Arguments> test_day5_part2() {
+        return Stream.of(
+                Arguments.of("/2023/day5-example.txt", 46),
+                Arguments.of("/2023/day5.txt", 78775051)
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource
+    public void test_day5_part2(String inputResource, long exMinLocation) throws IOException {
+        assertEquals(exMinLocation, new Day5.Part2().solve(input(inputResource)));
     }
 
-    private static void handleMapping(Map<String, List<Long[]>> mappings, String section, BufferedReader r) throws IOException {
-        String line;
-        final List<Long[]> ranges = new ArrayList<>();
-        while ((line = r.readLine()) != null && !line.isBlank()) {
-            long destinationRangeStart = Long.parseLong(line.split("\\s")[0]);
-            long sourceRangeStart = Long.parseLong(line.split("\\s")[1]);
-            long rangeLength = Long.parseLong(line.split("\\s")[2]);
-            ranges.add(new Long[]
-                    {destinationRangeStart, sourceRangeStart, rangeLength}
-            );
+    @ParameterizedTest
+    @MethodSource("test_day5")
+    public void test_day5_compiledAlmanac(String inputResource) throws IOException {
+        final Day5.Almanac almanac = new Day5.Part1().parse(input(inputResource));
+        final CompiledAlmanac compiled = CompiledAlmanac.compile(almanac);
+        final long[] seeds = new Random(5).longs(20_000, 0, 1L << 33).toArray();
+        final long[] locations = compiled.mapAll(seeds);
+        for (int i = 0; i < seeds.length; i++) {
+            assertEquals(compiled.mapByStage(seeds[i]), locations[i]);
+            assertEquals(IntervalMapper.minLocation(List.of(new long[]{seeds[i], seeds[i] + 1}), almanac.mappings()),
+                    locations[i]);
         }
-        mappings.put(section, ranges);
     }
 
-    private static Long mapToDestination(long sourceValue, List<Long[]> mappings) {
-        // sort by source range start
-        List<Long[]> sortedMappings = mappings.stream().sorted(Comparator.comparing(r -> r[1])).toList();
-        Long destinationValue = null;
-        for (Long[] range : sortedMappings) {
-            long sourceRangeStart = range[1];
-            long sourceRangeEnd = range[1] + range[2];
-            long destinationOffset = range[0] - range[1];
-            if (sourceValue < sourceRangeStart) {
-                destinationValue = sourceValue;
-                break;
-            } else {
-                if (sourceValue < sourceRangeEnd) {
-                    destinationValue = sourceValue + destinationOffset;
-                    break;
-                }
-            }
+    @ParameterizedTest
+    @MethodSource("test_day5")
+    public void test_day5_bruteForceSeedRanges(String inputResource) throws IOException {
+        final Day5.Almanac almanac = new Day5.Part1().parse(input(inputResource));
+        final CompiledAlmanac compiled = CompiledAlmanac.compile(almanac);
+        final List<Long> seeds = almanac.seeds();
+        long total = 0;
+        for (int i = 0; i < seeds.size(); i += 2) {
+            total += Math.min(seeds.get(i + 1), 1_000_000);
         }
-        if (destinationValue == null) {
-            destinationValue = sourceValue;
+        final List<String> reports = new CopyOnWriteArrayList<>();
+        try (Progress progress = Progress.start("seeds", total, Duration.ofMillis(5), reports::add)) {
+            for (int i = 0; i < seeds.size(); i += 2) {
+                final long start = seeds.get(i);
+                final long end = start + Math.min(seeds.get(i + 1), 1_000_000);
+                assertEquals(IntervalMapper.minLocation(List.of(new long[]{start, end}), almanac.mappings()),
+                        compiled.minLocation(start, end, progress));
+            }
+            assertEquals(total, progress.done());
         }
-        return destinationValue;
+        assertTrue(reports.get(reports.size() - 1).startsWith("seeds: " + total + " / " + total + " (100.0%)"),
+                reports.get(reports.size() - 1));
     }
-}
\ No newline at end of file
+}
@@ -1,62 +1,47 @@
 package com.outofmint;
 
+import com.outofmint.aoc2024.Day1;
+import com.outofmint.aoc2024.Day2;
+import com.outofmint.aoc2024.Day3;
+import com.outofmint.aoc2024.Day4;
+import com.outofmint.aoc2024.Day5;
+import com.outofmint.aoc2024.ReportValidator;
+import com.outofmint.trace.TracerTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.api.parallel.ResourceAccessMode;
+import org.junit.jupiter.api.parallel.ResourceLock;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.util.*;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import static com.outofmint.TestInputs.input;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 
+@ResourceLock(value = TracerTest.TRACER, mode = ResourceAccessMode.READ)
 public class AdventOfCode2024Test {
 
-    private static final Logger log = LoggerFactory.getLogger(AdventOfCode2024Test.class);
-    public static final String ANSI_RED = "\u001B[31m";
-    public static final String ANSI_GREEN = "\u001B[32m";
-    public static final String ANSI_YELLOW = "\u001B[33m";
-    public static final String ANSI_RED_BG = "\u001B[41m";
-    public static final String ANSI_GREEN_BG = "\u001B[42m";
-    public static final String ANSI_YELLOW_BG = "\u001B[43m";
-    public static final String ANSI_RESET = "\u001B[0m";
-
-
     @ParameterizedTest
     @MethodSource
-    public void test_day1Part1(final String inputSource, final int exAbsoluteDistance) {
-        try (BufferedReader r = new BufferedReader(new InputStreamReader(
-                Objects.requireNonNull(AdventOfCode2024Test.class.getResourceAsStream(inputSource))))) {
-            String line;
-            List<Integer> list1 = new LinkedList<>();
-            List<Integer> list2 = new LinkedList<>();
-            while ((line = r.readLine()) != null) {
-                Iterator<Integer> parts = Arrays.stream(line.split(" {3}")).map(Integer::parseInt).iterator();
-                list1.add(parts.next());
-                list2.add(parts.next());
-            }
-            List<Integer> sorted1 = list1.stream().sorted().toList();
-            List<Integer> sorted2 = list2.stream().sorted().toList();
-            int absoluteDistance = 0;
-            for (int i = 0; i < sorted1.size(); i++) {
-                absoluteDistance += Math.abs(sorted1.get(i) - sorted2.get(i));
-            }
-            assertEquals(exAbsoluteDistance, exAbsoluteDistance);
-        } catch (IOException e) {
-            throw new RuntimeException(e);
-        }
+    public void test_day1Part1(final String inputSource, final int exAbsoluteDistance) throws IOException {
+        assertEquals(exAbsoluteDistance, new Day1.Part1().solve(input(inputSource)));
     }
 
     public static Stream<Arguments> test_day1Part1() {
@@ -68,24 +53,8 @@ public class AdventOfCode2024Test {
 
     @ParameterizedTest
     @MethodSource
-    public void test_day1Part2(final String inputSource, final int exSimilarityScore) {
-        try (BufferedReader r = new BufferedReader(new InputStreamReader(
-                Objects.requireNonNull(AdventOfCode2024Test.class.getResourceAsStream(inputSource))))) {
-            String line;
-            List<Integer> numbers = new LinkedList<>();
-            Map<Integer, Integer> frequency = new HashMap<>();
-            while ((line = r.readLine()) != null) {
-                Iterator<Integer> parts = Arrays.stream(line.split(" {3}")).map(Integer::parseInt).iterator();
-                numbers.add(parts.next());
-                frequency.compute(parts.next(), (k, v) -> v == null ? 1 : ++v);
-            }
-            int similarityScore = numbers.stream()
-                    .mapToInt(n -> n * frequency.getOrDefault(n, 0))
-                    .sum();
-            assertEquals(exSimilarityScore, similarityScore);
-        } catch (IOException e) {
-            throw new RuntimeException(e);
-        }
+    public void test_day1Part2(final String inputSource, final int exSimilarityScore) throws IOException {
+        assertEquals(exSimilarityScore, new Day1.Part2().solve(input(inputSource)));
     }
 
     public static Stream<Arguments> test_day1Part2() {
@@ -95,37 +64,40 @@ public class AdventOfCode2024Test {
         );
     }
 
+    @Test
+    public void test_day1Primitive(@TempDir Path dir) throws IOException {
+        // checks the radix sort and the merge walk against boxed sorting and counting
+        final Random random = new Random(1);
+        final int size = 200_000;
+        final List<Integer> left = new ArrayList<>();
+        final List<Integer> right = new ArrayList<>();
+        final StringBuilder text = new StringBuilder();
+        for (int i = 0; i < size; i++) {
+            final int a = random.nextBoolean() ? random.nextInt(1000) : random.nextInt();
+            final int b = random.nextBoolean() ? random.nextInt(1000) : random.nextInt();
+            left.add(a);
+            right.add(b);
+            text.append(a).append("   ").append(b).append('\n');
+        }
+        final List<Integer> sortedLeft = left.stream().sorted().toList();
+        final List<Integer> sortedRight = right.stream().sorted().toList();
+        long exDistance = 0;
+        for (int i = 0; i < size; i++) {
+            exDistance += Math.abs((long) sortedLeft.get(i) - sortedRight.get(i));
+        }
+        final Map<Integer, Long> frequency = right.stream()
+                .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+        final long exSimilarity = left.stream().mapToLong(n -> n * frequency.getOrDefault(n, 0L)).sum();
+
+        final Path file = Files.writeString(dir.resolve("day1.txt"), text);
+        assertEquals(exDistance, new Day1.Part1().solve(file));
+        assertEquals(exSimilarity, new Day1.Part2().solve(file));
+    }
+
     @ParameterizedTest
     @MethodSource
-    public void test_day2Part1(final String inputSource, final int exValidReports) {
-        try (BufferedReader r = new BufferedReader(new InputStreamReader(
-                Objects.requireNonNull(AdventOfCode2024Test.class.getResourceAsStream(inputSource))))) {
-            String line;
-            int validReports = 0;
-            while ((line = r.readLine()) != null) {
-                Integer[] report = Arrays.stream(line.split(" +")).map(Integer::parseInt).toArray(Integer[]::new);
-                boolean valid = true;
-                if (report.length > 1) {
-                    boolean increasing = report[0] < report[1];
-                    for (int i = 1; i < report.length; i++) {
-                        if (increasing && report[i - 1] > report[i]) {
-                            valid = false;
-                            break;
-                        } else if (!increasing && report[i - 1] < report[i]) {
-                            valid = false;
-                            break;
-                        } else if (Math.abs(report[i - 1] - report[i]) < 1 || Math.abs(report[i - 1] - report[i]) > 3) {
-                            valid = false;
-                            break;
-                        }
-                    }
-                }
-                validReports += valid ? 1 : 0;
-            }
-            assertEquals(exValidReports, validReports);
-        } catch (IOException e) {
-            throw new RuntimeException(e);
-        }
+    public void test_day2Part1(final String inputSource, final int exValidReports) throws IOException {
+        assertEquals(exValidReports, new Day2.Part1().solve(input(inputSource)));
     }
 
     public static Stream<Arguments> test_day2Part1() {
@@ -137,50 +109,8 @@ public class AdventOfCode2024Test {
 
     @ParameterizedTest
     @MethodSource
-    public void test_day2Part2(final String inputSource, final int exValidReports) {
-        try (BufferedReader r = new BufferedReader(new InputStreamReader(
-                Objects.requireNonNull(AdventOfCode2024Test.class.getResourceAsStream(inputSource))))) {
-            String line;
-            int validReports = 0;
-            while ((line = r.readLine()) != null) {
-                Integer[] report = Arrays.stream(line.split(" +")).map(Integer::parseInt).toArray(Integer[]::new);
-                boolean valid = checkReport(report);
-                if (!valid) {
-                    for (int i = 0; i < report.length; i++) {
-                        List<Integer> subset = new ArrayList<>(Arrays.asList(Arrays.copyOf(report, report.length)));
-                        subset.remove(i);
-                        valid = checkReport(subset.toArray(Integer[]::new));
-                        if (valid) {
-                            break;
-                        }
-                    }
-                }
-                validReports += valid ? 1 : 0;
-            }
-            assertEquals(exValidReports, validReports);
-        } catch (IOException e) {
-            throw new RuntimeException(e);
-        }
-    }
-
-    private static boolean checkReport(Integer[] report) {
-        boolean valid = true;
-        if (report.length > 1) {
-            boolean increasing = report[0] < report[1];
-            for (int i = 1; i < report.length; i++) {
-                if (increasing && report[i - 1] > report[i]) {
-                    valid = false;
-                    break;
-                } else if (!increasing && report[i - 1] < report[i]) {
-                    valid = false;
-                    break;
-                } else if (Math.abs(report[i - 1] - report[i]) < 1 || Math.abs(report[i - 1] - report[i]) > 3) {
-                    valid = false;
-                    break;
-                }
-            }
-        }
-        return valid;
+    public void test_day2Part2(final String inputSource, final int exValidReports) throws IOException {
+        assertEquals(exValidReports, new Day2.Part2().solve(input(inputSource)));
     }
 
     public static Stream<Arguments> test_day2Part2() {
@@ -190,28 +120,52 @@ public class AdventOfCode2024Test {
         );
     }
 
-    @ParameterizedTest
-    @MethodSource
-    public void test_day3Part1(final String inputSource, final int exMulSum) {
-        final Pattern mulPattern = Pattern.compile("mul\\(\\d+\\,\\d+\\)");
-        try (BufferedReader r = new BufferedReader(new InputStreamReader(
-                Objects.requireNonNull(AdventOfCode2024Test.class.getResourceAsStream(inputSource))))) {
-            String line;
-            int acMulSum = 0;
-            while ((line = r.readLine()) != null) {
-                Matcher mulMatcher = mulPattern.matcher(line);
-                while (mulMatcher.find()) {
-                    String mulEx = mulMatcher.group()
-                            .replaceAll("mul\\(", "")
-                            .replaceAll("\\)", "");
-                    Integer[] operands = Arrays.stream(mulEx.split(",")).map(Integer::parseInt).toArray(Integer[]::new);
-                    acMulSum += operands[0] * operands[1];
+    @Test
+    public void test_day2Tolerance() {
+        final Random random = new Random(2);
+        for (int tolerance = 0; tolerance <= 2; tolerance++) {
+            final ReportValidator validator = new ReportValidator(tolerance);
+            for (int n = 0; n < 5000; n++) {
+                final int[] report = new int[random.nextInt(9)];
+                for (int i = 1; i < report.length; i++) {
+                    report[i] = report[i - 1] + random.nextInt(9) - 4;
+                }
+                assertEquals(safeBruteForce(report, tolerance), validator.safe(report, report.length),
+                        Arrays.toString(report) + " tolerating " + tolerance);
+            }
+        }
+    }
+
+    private static boolean safeBruteForce(int[] report, int tolerance) {
+        for (int removed = 0; removed < 1 << report.length; removed++) {
+            if (Integer.bitCount(removed) > tolerance) {
+                continue;
+            }
+            int previous = -1;
+            int direction = 0;
+            boolean safe = true;
+            for (int i = 0; i < report.length && safe; i++) {
+                if ((removed & 1 << i) != 0) {
+                    continue;
+                }
+                if (previous >= 0) {
+                    final int step = report[i] - report[previous];
+                    direction = direction == 0 ? Integer.signum(step) : direction;
+                    safe = Math.abs(step) >= 1 && Math.abs(step) <= 3 && Integer.signum(step) == direction;
                 }
+                previous = i;
+            }
+            if (safe) {
+                return true;
             }
-            assertEquals(exMulSum, acMulSum);
-        } catch (IOException e) {
-            throw new RuntimeException(e);
         }
+        return false;
+    }
+
+    @ParameterizedTest
+    @MethodSource
+    public void test_day3Part1(final String inputSource, final int exMulSum) throws IOException {
+        assertEquals(exMulSum, new Day3.Part1().solve(input(inputSource)));
     }
 
     public static Stream<Arguments> test_day3Part1() {
@@ -223,44 +177,8 @@ public class AdventOfCode2024Test {
 
     @ParameterizedTest
     @MethodSource
-    public void test_day3Part2(final String inputSource, final int exMulSum) {
-        final Pattern expressionPattern = Pattern.compile("(mul\\(\\d+\\,\\d+\\))|(don't\\(\\))|(do\\(\\))");
-        try (BufferedReader r = new BufferedReader(new InputStreamReader(
-                Objects.requireNonNull(AdventOfCode2024Test.class.getResourceAsStream(inputSource))))) {
-            String line;
-            int acMulSum = 0;
-            boolean doIt = true;
-            while ((line = r.readLine()) != null) {
-                Matcher expressionMatcher = expressionPattern.matcher(line);
-                while (expressionMatcher.find()) {
-                    String expression = expressionMatcher.group();
-                    String operation = expression.replaceAll("\\(.*\\)", "");
-                    switch (operation.toLowerCase()) {
-                        case "mul":
-                            if (doIt) {
-                                String mulEx = expression
-                                        .replaceAll("mul\\(", "")
-                                        .replaceAll("\\)", "");
-                                Integer[] operands =
-                                        Arrays.stream(mulEx.split(",")).map(Integer::parseInt).toArray(Integer[]::new);
-                                acMulSum += operands[0] * operands[1];
-                            }
-                            break;
-                        case "do":
-                            doIt = true;
-                            break;
-                        case "don't":
-                            doIt = false;
-                            break;
-                        default:
-                            throw new UnsupportedOperationException("Operation not supported: " + operation);
-                    }
-                }
-            }
-            assertEquals(exMulSum, acMulSum);
-        } catch (IOException e) {
-            throw new RuntimeException(e);
-        }
+    public void test_day3Part2(final String inputSource, final int exMulSum) throws IOException {
+        assertEquals(exMulSum, new Day3.Part2().solve(input(inputSource)));
     }
 
     public static Stream<Arguments> test_day3Part2() {
@@ -270,88 +188,45 @@ public class AdventOfCode2024Test {
         );
     }
 
-    @ParameterizedTest
-    @MethodSource
-    public void test_day4Part1(final String inputSource, final int exXmasCount) {
-        AtomicInteger acXmasCount = new AtomicInteger(0);
-        final String searchString = "xmas";
-        try (BufferedReader r = new BufferedReader(new InputStreamReader(
-                Objects.requireNonNull(AdventOfCode2024Test.class.getResourceAsStream(inputSource))))) {
-            String line;
-            final List<List<Character>> input = new ArrayList<>();
-            while ((line = r.readLine()) != null) {
-                input.add(line.toLowerCase().chars().mapToObj(c -> (char) c).collect(Collectors.toUnmodifiableList()));
-            }
-            final ExecutorService executorService = Executors.newFixedThreadPool(8);
-            final List<CompletableFuture<Void>> futures = new ArrayList<>();
-            for (int row = 0; row < input.size(); row++) {
-                for (int col = 0; col < input.get(row).size(); col++) {
-                    if (input.get(row).get(col) == searchString.charAt(0)) {
-                        final int curR = row;
-                        final int curC = col;
-                        printInput(input, row, col, ANSI_YELLOW_BG);
-                        futures.add(CompletableFuture.runAsync(() -> acXmasCount.getAndUpdate(c -> c + (findAdjacent(input, curR, curC, searchString, -1, 0) ? 1 : 0)), executorService));
-                        futures.add(CompletableFuture.runAsync(() -> acXmasCount.getAndUpdate(c -> c + (findAdjacent(input, curR, curC, searchString, 1, 0) ? 1 : 0)), executorService));
-                        futures.add(CompletableFuture.runAsync(() -> acXmasCount.getAndUpdate(c -> c + (findAdjacent(input, curR, curC, searchString, 0, -1) ? 1 : 0)), executorService));
-                        futures.add(CompletableFuture.runAsync(() -> acXmasCount.getAndUpdate(c -> c + (findAdjacent(input, curR, curC, searchString, 0, 1) ? 1 : 0)), executorService));
-                        futures.add(CompletableFuture.runAsync(() -> acXmasCount.getAndUpdate(c -> c + (findAdjacent(input, curR, curC, searchString, -1, -1) ? 1 : 0)), executorService));
-                        futures.add(CompletableFuture.runAsync(() -> acXmasCount.getAndUpdate(c -> c + (findAdjacent(input, curR, curC, searchString, -1, 1) ? 1 : 0)), executorService));
-                        futures.add(CompletableFuture.runAsync(() -> acXmasCount.getAndUpdate(c -> c + (findAdjacent(input, curR, curC, searchString, 1, -1) ? 1 : 0)), executorService));
-                        futures.add(CompletableFuture.runAsync(() -> acXmasCount.getAndUpdate(c -> c + (findAdjacent(input, curR, curC, searchString, 1, 1) ? 1 : 0)), executorService));
-                    } else {
-                        printInput(input, row, col, ANSI_RED_BG);
-                    }
-                }
-            }
-            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
-            executorService.shutdown();
-            assertEquals(exXmasCount, acXmasCount.get());
-        } catch (IOException e) {
-            throw new RuntimeException(e);
-        }
+    @Test
+    public void test_day3LongOperands(@TempDir Path dir) throws IOException {
+        final Path file = Files.writeString(dir.resolve("memory.txt"),
+                "mul(99999999999999999999,2)mul(1234,5)mul(6,7890)mul(012,3)mul(999,999)");
+        assertEquals(12 * 3 + 999 * 999, new Day3.Part1().solve(file));
     }
 
-    private boolean findAdjacent(List<List<Character>> input, int startRow, int startCol, String find, int dRow,
-                                 int dCol) {
-        int findIndex = 0;
-        boolean found = false;
-        for (int row = startRow, col = startCol;
-             row >= 0 && row < input.size() && findIndex < find.length() && col >= 0 && col < input.get(0).size();
-             row += dRow, col += dCol) {
-            if (input.get(row).get(col).charValue() == find.charAt(findIndex++)) {
-                printInput(input, row, col, ANSI_GREEN_BG);
-                if (findIndex == find.length()) {
-                    found = true;
-                    break;
-                }
+    @Test
+    public void test_day3Chunked(@TempDir Path dir) throws IOException {
+        // random fragments so that instructions straddle the chunk boundaries
+        final String[] fragments = {"mul(", "mul", "(", ",", ")", "do()", "don't()", "do", "don't", "x", "\n", " "};
+        final Random random = new Random(3);
+        final StringBuilder memory = new StringBuilder();
+        while (memory.length() < 3 * (1 << 20) + 17) {
+            memory.append(random.nextInt(3) == 0 ? Integer.toString(random.nextInt(1000))
+                    : fragments[random.nextInt(fragments.length)]);
+        }
+        final Matcher matcher = Pattern.compile("mul\\((\\d{1,3}),(\\d{1,3})\\)|do\\(\\)|don't\\(\\)").matcher(memory);
+        long exAll = 0;
+        long exEnabled = 0;
+        boolean enabled = true;
+        while (matcher.find()) {
+            if (matcher.group().startsWith("mul")) {
+                final long product = Long.parseLong(matcher.group(1)) * Long.parseLong(matcher.group(2));
+                exAll += product;
+                exEnabled += enabled ? product : 0;
             } else {
-                break;
+                enabled = matcher.group().equals("do()");
             }
         }
-        if (found) {
-            log.debug("### +1 ###");
-        }
-        return found;
+        final Path file = Files.writeString(dir.resolve("memory.txt"), memory);
+        assertEquals(exAll, new Day3.Part1().solve(file));
+        assertEquals(exEnabled, new Day3.Part2().solve(file));
     }
 
-    private void printInput(List<List<Character>> input, int rowH, int colH, String color) {
-        StringBuffer output = new StringBuffer();
-        output.append("\n");
-        output.append(String.join("", Collections.nCopies(input.get(0).size(), "=")));
-        output.append("\n");
-        for (int i = 0; i < input.size(); i++) {
-            for (int j = 0; j < input.get(i).size(); j++) {
-                if (i == rowH && j == colH) {
-                    output.append(color).append(input.get(i).get(j)).append(ANSI_RESET);
-                } else {
-                    output.append(input.get(i).get(j));
-                }
-            }
-            output.append("\n");
-        }
-        output.append(String.join("", Collections.nCopies(input.get(0).size(), "=")));
-        output.append("\n");
-        log.debug(output.toString());
+    @ParameterizedTest
+    @MethodSource
+    public void test_day4Part1(final String inputSource, final int exXmasCount) throws IOException {
+        assertEquals(exXmasCount, new Day4.Part1().solve(input(inputSource)));
     }
 
     public static Stream<Arguments> test_day4Part1() {
@@ -362,48 +237,25 @@ public class AdventOfCode2024Test {
         );
     }
 
+    @Test
+    public void test_day4Part1Sparse(@TempDir Path dir) throws IOException {
+        final char[][] rows = new char[20][20];
+        for (char[] row : rows) {
+            Arrays.fill(row, '.');
+        }
+        "XMAS".getChars(0, 4, rows[3], 5);
+        for (int i = 0; i < 4; i++) {
+            rows[10 + i][7] = "SAMX".charAt(i);
+        }
+        // two of 400 cells start the word, so it is walked rather than read by the automaton
+        final Path file = Files.write(dir.resolve("sparse.txt"), Arrays.stream(rows).map(String::new).toList());
+        assertEquals(2, new Day4.Part1().solve(file));
+    }
+
     @ParameterizedTest
     @MethodSource
-    public void test_day4Part2(final String inputSource, final int exXmasCount) {
-        AtomicInteger acXmasCount = new AtomicInteger(0);
-        final String searchString = "mas";
-        try (BufferedReader r = new BufferedReader(new InputStreamReader(
-                Objects.requireNonNull(AdventOfCode2024Test.class.getResourceAsStream(inputSource))))) {
-            String line;
-            final List<List<Character>> input = new ArrayList<>();
-            while ((line = r.readLine()) != null) {
-                input.add(line.toLowerCase().chars().mapToObj(c -> (char) c).collect(Collectors.toUnmodifiableList()));
-            }
-            final ExecutorService executorService = Executors.newFixedThreadPool(8);
-            final List<CompletableFuture<Void>> futures = new ArrayList<>();
-            // we can skip row 0 and the last row for searching for 'a'
-            for (int row = 1; row < input.size() - 1; row++) {
-                for (int col = 0; col < input.get(row).size(); col++) {
-                    if (input.get(row).get(col) == searchString.charAt(1)) {
-                        printInput(input, row, col, ANSI_YELLOW_BG);
-                        final int curR = row;
-                        final int curC = col;
-                        futures.add(CompletableFuture.runAsync(() ->
-                                        acXmasCount.getAndUpdate(c -> c +
-                                                (((findAdjacent(input, curR - 1, curC - 1, searchString, 1, 1)
-                                                        || findAdjacent(input, curR + 1, curC + 1, searchString, -1,
-                                                        -1))
-                                                        && (findAdjacent(input, curR + 1, curC - 1, searchString, -1,
-                                                        1)
-                                                        || findAdjacent(input, curR - 1, curC + 1, searchString, 1,
-                                                        -1))) ? 1 : 0)),
-                                executorService));
-                    } else {
-                        printInput(input, row, col, ANSI_RED_BG);
-                    }
-                }
-            }
-            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
-            executorService.shutdown();
-            assertEquals(exXmasCount, acXmasCount.get());
-        } catch (IOException e) {
-            throw new RuntimeException(e);
-        }
+    public void test_day4Part2(final String inputSource, final int exXmasCount) throws IOException {
+        assertEquals(exXmasCount, new Day4.Part2().solve(input(inputSource)));
     }
 
     public static Stream<Arguments> test_day4Part2() {
@@ -417,42 +269,8 @@ public class AdventOfCode2024Test {
 
     @ParameterizedTest
     @MethodSource
-    public void test_day5Part1(final String inputSource, final int exChecksum) {
-        AtomicInteger acChecksum = new AtomicInteger(0);
-        try (BufferedReader r = new BufferedReader(new InputStreamReader(
-                Objects.requireNonNull(AdventOfCode2024Test.class.getResourceAsStream(inputSource))))) {
-            String line;
-            final Map<String, List<String>> rules = new HashMap<>();
-            final List<String> updates = new ArrayList<>();
-
-            while ((line = r.readLine()) != null && !line.isEmpty()) {
-                String[] ruleParts = line.split("\\|");
-                rules.computeIfAbsent(ruleParts[0], k -> new ArrayList<>()).add(ruleParts[1]);
-            }
-            while ((line = r.readLine()) != null) {
-                updates.add(line);
-            }
-
-
-            final ExecutorService executorService = Executors.newFixedThreadPool(8);
-            final List<CompletableFuture<Void>> futures = new ArrayList<>();
-            for (String update : updates) {
-                final List<String> updatePages = List.of(update.split(","));
-                List<String> applicableRules = rules.keySet().stream().filter(updatePages::contains).toList();
-                boolean valid = applicableRules.stream().allMatch(rule ->
-                        rules.get(rule).stream()
-                                .filter(updatePages::contains)
-                                .allMatch(subsequentPage -> update.indexOf(rule) < update.indexOf(subsequentPage)));
-                if (valid) {
-                    acChecksum.addAndGet(Integer.parseInt(updatePages.get((updatePages.size() / 2))));
-                }
-            }
-            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
-            executorService.shutdown();
-            assertEquals(exChecksum, acChecksum.get());
-        } catch (IOException e) {
-            throw new RuntimeException(e);
-        }
+    public void test_day5Part1(final String inputSource, final int exChecksum) throws IOException {
+        assertEquals(exChecksum, new Day5.Part1().solve(input(inputSource)));
     }
 
     public static Stream<Arguments> test_day5Part1() {
@@ -462,4 +280,80 @@ public class AdventOfCode2024Test {
         );
     }
 
-}
\ No newline at end of file
+
+    @ParameterizedTest
+    @MethodSource
+    public void test_day5Part2(final String inputSource, final int exChecksum) throws IOException {
+        assertEquals(exChecksum, new Day5.Part2().solve(input(inputSource)));
+    }
+
+    public static Stream<Arguments> test_day5Part2() {
+        return Stream.of(
+                Arguments.of("/2024/day5-example.txt", 123),
+                Arguments.of("/2024/day5-input.txt", 5180)
+        );
+    }
+
+    @Test
+    public void test_day5Cycle(@TempDir Path dir) throws IOException {
+        final Path file = Files.writeString(dir.resolve("day5.txt"), "1|2\n2|3\n3|1\n3|4\n\n1,2,3\n4,3,1,2\n");
+        final IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> new Day5.Part2().solve(file));
+        assertTrue(e.getMessage().endsWith("2|3|1|2"), e.getMessage());
+    }
+
+    @Test
+    public void test_day5SparsePages(@TempDir Path dir) throws IOException {
+        // page numbers far beyond the number of pages must not size any table
+        final Path file = Files.writeString(dir.resolve("day5.txt"),
+                "2000000000|7\n7|1999999999\n\n2000000000,7,1999999999\n1999999999,7,2000000000\n5,7,6\n");
+        assertEquals(14, new Day5.Part1().solve(file));
+        assertEquals(7, new Day5.Part2().solve(file));
+    }
+
+    @Test
+    public void test_day5PagePrefix(@TempDir Path dir) throws IOException {
+        // page 4 is a prefix of page 43, which must not be mistaken for it
+        final Path file = Files.writeString(dir.resolve("day5.txt"), "4|3\n43|3\n\n43,3,4\n43,4,3\n");
+        assertEquals(4, new Day5.Part1().solve(file));
+    }
+
+    @Test
+    public void test_day5Batches(@TempDir Path dir) throws IOException {
+        // more than 64 pages and enough updates for several batches; the rules order all pairs of pages by rank, so
+        // the sorted ranks are the only correct order of an update
+        final Random random = new Random(5);
+        final int numPages = 150;
+        final int[] labels = random.ints(100, 1000).distinct().limit(numPages).toArray();
+        final StringBuilder text = new StringBuilder();
+        for (int a = 0; a < numPages; a++) {
+            for (int b = a + 1; b < numPages; b++) {
+                text.append(labels[a]).append('|').append(labels[b]).append('\n');
+            }
+        }
+        text.append('\n');
+        long exChecksum = 0;
+        long exReordered = 0;
+        for (int u = 0; u < 3100; u++) {
+            final int[] ranks = random.ints(0, numPages).distinct().limit(1 + 2L * random.nextInt(6)).toArray();
+            if (random.nextBoolean()) {
+                Arrays.sort(ranks);
+            }
+            for (int i = 0; i < ranks.length; i++) {
+                text.append(i > 0 ? "," : "").append(labels[ranks[i]]);
+            }
+            text.append('\n');
+            final int[] sorted = ranks.clone();
+            Arrays.sort(sorted);
+            if (Arrays.equals(ranks, sorted)) {
+                exChecksum += labels[ranks[ranks.length / 2]];
+            } else {
+                exReordered += labels[sorted[sorted.length / 2]];
+            }
+        }
+        final Path file = Files.writeString(dir.resolve("day5.txt"), text);
+        assertEquals(exChecksum, new Day5.Part1().solve(file));
+        assertEquals(exReordered, new Day5.Part2().solve(file));
+    }
+
+}
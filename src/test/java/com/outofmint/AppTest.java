@@ -0,0 +1,221 @@
+package com.outofmint;
+
+import com.outofmint.trace.TracerTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.api.parallel.ResourceLock;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.IntStream;
+
+import static com.outofmint.TestInputs.input;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+@ResourceLock(TracerTest.TRACER)
+public class AppTest {
+
+    @Test
+    public void test_allSolversRegistered() {
+        final List<String> names = Solvers.all().stream().map(Solver::name).toList();
+        assertEquals(20, names.size());
+        assertEquals("2023/1/1", names.get(0));
+        assertEquals("2024/5/2", names.get(names.size() - 1));
+    }
+
+    @Test
+    public void test_select() {
+        assertEquals(10, Solvers.select("2023").size());
+        assertEquals(2, Solvers.select("2024/4").size());
+        assertEquals(List.of("2023/5/1"), Solvers.select("2023/5/1").stream().map(Solver::name).toList());
+        assertThrows(IllegalArgumentException.class, () -> Solvers.select("2023/five"));
+    }
+
+    @Test
+    public void test_optionsDeduplicateSelectors() {
+        final App.Options options = App.Options.parse("--warmup", "2", "2023/1", "2023/1/2", "2024/1/1");
+        assertEquals(2, options.warmup());
+        assertEquals(List.of("2023/1/1", "2023/1/2", "2024/1/1"),
+                options.solvers().stream().map(Solver::name).toList());
+        assertThrows(IllegalArgumentException.class, () -> App.Options.parse("--bogus"));
+        assertThrows(IllegalArgumentException.class, () -> App.Options.parse("1999"));
+    }
+
+    @Test
+    public void test_run() throws IOException {
+        final App.Options options = App.Options.parse("--inputs", input("/").toString(), "2023/1/1");
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        App.run(options, new PrintStream(out, true, StandardCharsets.UTF_8));
+        assertTrue(out.toString(StandardCharsets.UTF_8).startsWith("2023 day  1 part 1:           54390"));
+    }
+
+    @Test
+    public void test_runTraced(@TempDir Path dir) throws IOException {
+        final Path trace = dir.resolve("trace.html");
+        final App.Options options = App.Options.parse("--inputs", input("/").toString(), "--trace", trace.toString(),
+                "--trace-sample", "2", "2023/1/2");
+        App.run(options, new PrintStream(new ByteArrayOutputStream(), true, StandardCharsets.UTF_8));
+        assertTrue(Files.readString(trace).contains("<span class=\"span\">"));
+    }
+
+    @Test
+    public void test_runCached(@TempDir Path dir) throws IOException {
+        final App.Options options = App.Options.parse("--inputs", input("/").toString(),
+                "--cache", dir.resolve("cache").toString(), "2023/1/1");
+        final ByteArrayOutputStream first = new ByteArrayOutputStream();
+        App.run(options, new PrintStream(first, true, StandardCharsets.UTF_8));
+        assertTrue(first.toString(StandardCharsets.UTF_8).contains("parse"));
+        final ByteArrayOutputStream second = new ByteArrayOutputStream();
+        App.run(options, new PrintStream(second, true, StandardCharsets.UTF_8));
+        assertEquals("2023 day  1 part 1:           54390   cached", second.toString(StandardCharsets.UTF_8).trim());
+    }
+
+    @Test
+    public void test_answerCacheEviction(@TempDir Path dir) throws IOException {
+        final AnswerCache cache = new AnswerCache(dir, 2);
+        cache.put("a", 1);
+        cache.put("b", 2);
+        Files.setLastModifiedTime(dir.resolve("a.answer"), FileTime.fromMillis(1000));
+        Files.setLastModifiedTime(dir.resolve("b.answer"), FileTime.fromMillis(2000));
+        assertEquals(OptionalLong.of(1), cache.get("a"));
+        cache.put("c", 3);
+        assertEquals(2, cache.size());
+        assertEquals(OptionalLong.empty(), cache.get("b"));
+        assertEquals(OptionalLong.of(1), cache.get("a"));
+        assertEquals(OptionalLong.of(3), cache.get("c"));
+
+        final Path input = Files.writeString(dir.resolve("input.txt"), "1abc2\n");
+        final Solver<?> solver = Solvers.select("2023/1/1").get(0);
+        assertEquals(cache.key(solver, input), cache.key(solver, input));
+        final String key = cache.key(solver, input);
+        Files.writeString(input, "1abc3\n");
+        assertNotEquals(key, cache.key(solver, input));
+    }
+
+    @Test
+    public void test_runReport(@TempDir Path dir) throws IOException {
+        for (String name : new String[]{"report.csv", "report.json"}) {
+            final Path report = dir.resolve(name);
+            final App.Options options = App.Options.parse("--inputs", input("/").toString(),
+                    "--report", report.toString(), "2023/1", "2024/1/1");
+            App.run(options, new PrintStream(new ByteArrayOutputStream(), true, StandardCharsets.UTF_8));
+            final String text = Files.readString(report);
+            if (name.endsWith(".csv")) {
+                final List<String> lines = text.lines().toList();
+                assertEquals(4, lines.size());
+                assertEquals(String.join(",", Report.COLUMNS), lines.get(0));
+                assertTrue(lines.get(1).startsWith("2023,1,1,1,54390,false,"), lines.get(1));
+                assertEquals(Report.COLUMNS.length, lines.get(3).split(",").length);
+            } else {
+                assertTrue(text.startsWith(
+                        "[\n  {\"year\": 2023, \"day\": 1, \"part\": 1, \"run\": 1, \"answer\": 54390,"), text);
+                assertEquals(3, text.split("\"peakHeapBytes\": ").length - 1);
+            }
+        }
+        // one record per timed run, numbered per solver
+        final Path report = dir.resolve("runs.csv");
+        App.run(App.Options.parse("--inputs", input("/").toString(), "--runs", "2", "--report", report.toString(),
+                "2023/1"), new PrintStream(new ByteArrayOutputStream(), true, StandardCharsets.UTF_8));
+        assertEquals(List.of("2023,1,1,1", "2023,1,1,2", "2023,1,2,1", "2023,1,2,2"), Files.readString(report).lines()
+                .skip(1).map(line -> line.substring(0, line.indexOf(',', 9))).toList());
+
+        final Solver<?> solver = Solvers.select("2023/1/1").get(0);
+        assertEquals("n/a", App.allocated(new Runner.Result[]{
+                new Runner.Result(solver, null, 0, 0, 0, new Metrics(-1, -1, 0, 0, 0), false)}));
+    }
+
+    @Test
+    public void test_mannWhitney() {
+        final long[] low = {1, 2, 3, 4, 5, 6, 7, 8, 9, 10};
+        final long[] high = {11, 12, 13, 14, 15, 16, 17, 18, 19, 20};
+        assertTrue(Baseline.mannWhitney(low, high) < 0.001);
+        assertEquals(Baseline.mannWhitney(low, high), Baseline.mannWhitney(high, low), 1e-12);
+        assertEquals(1, Baseline.mannWhitney(low, low), 1e-6);
+        assertEquals(1, Baseline.mannWhitney(new long[]{5, 5, 5}, new long[]{5, 5}), 1e-6);
+        final double interleaved = Baseline.mannWhitney(new long[]{1, 3, 5, 7, 9, 11, 13, 15},
+                new long[]{2, 4, 6, 8, 10, 12, 14, 16});
+        assertTrue(interleaved > 0.5 && interleaved < 1, Double.toString(interleaved));
+        assertTrue(Baseline.compare("a", low, high).regression());
+        assertTrue(!Baseline.compare("a", high, low).regression());
+        assertEquals(5.5 / 15.5, Baseline.compare("a", low, high).speedup(), 1e-12);
+    }
+
+    @Test
+    public void test_runBaseline(@TempDir Path dir) throws IOException {
+        final Path file = dir.resolve("baseline.txt");
+        final App.Options options = App.Options.parse("--inputs", input("/").toString(), "--runs", "10",
+                "--baseline", file.toString(), "2023/1");
+        // a fresh baseline is recorded, not compared
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(0, App.run(options, new PrintStream(out, true, StandardCharsets.UTF_8)));
+        assertTrue(out.toString(StandardCharsets.UTF_8).contains("recorded"));
+        final Baseline recorded = Baseline.read(file);
+        assertEquals(10, recorded.samples("2023/1/1").length);
+        assertEquals(10, recorded.samples("2023/1/2").length);
+
+        // no solver takes a nanosecond, so both regress
+        Files.writeString(file, "2023/1/1 1 1 1 1 1 1 1 1 1 1\n2023/1/2 1 1 1 1 1 1 1 1 1 1\n");
+        final ByteArrayOutputStream slower = new ByteArrayOutputStream();
+        assertEquals(1, App.run(options, new PrintStream(slower, true, StandardCharsets.UTF_8)));
+        assertTrue(slower.toString(StandardCharsets.UTF_8).contains("2 solver(s) regressed"));
+
+        // nor an hour
+        final long hour = 3_600_000_000_000L;
+        Files.writeString(file, ("2023/1/1" + (" " + hour).repeat(10) + "\n2023/1/2" + (" " + hour).repeat(10)));
+        final ByteArrayOutputStream faster = new ByteArrayOutputStream();
+        assertEquals(0, App.run(options, new PrintStream(faster, true, StandardCharsets.UTF_8)));
+        assertTrue(faster.toString(StandardCharsets.UTF_8).contains("faster"));
+
+        assertThrows(IllegalArgumentException.class, () -> App.Options.parse("--runs", "0"));
+        assertThrows(IllegalArgumentException.class,
+                () -> App.Options.parse("--baseline", file.toString(), "--cache", dir.toString()));
+        assertEquals(Baseline.MIN_SAMPLES, App.Options.parse("--baseline", file.toString(), "2023/1").runs());
+        assertThrows(IllegalArgumentException.class,
+                () -> App.Options.parse("--runs", "1", "--baseline", file.toString(), "2023/1"));
+    }
+
+    @Test
+    public void test_progress() throws InterruptedException {
+        assertEquals("seeds: 250 / 1000 (25.0%), 250 per s, ETA 0:00:03",
+                Progress.format("seeds", 250, 1000, 1_000_000_000L));
+        assertEquals("seeds: 0 / 1000 (0.0%), 0 per s, ETA ?", Progress.format("seeds", 0, 1000, 0));
+        assertEquals("seeds: 7200, 2 per s", Progress.format("seeds", 7200, 0, 3_600_000_000_000L));
+        assertEquals("seeds: 1 / 7201 (0.0%), 1 per s, ETA 2:00:00",
+                Progress.format("seeds", 1, 7201, 1_000_000_000L));
+
+        final List<String> reports = new CopyOnWriteArrayList<>();
+        try (Progress progress = Progress.start("work", 4_000_000, Duration.ofMillis(1), reports::add)) {
+            Workers.pool().submit(() -> IntStream.range(0, 4_000).parallel().forEach(i -> progress.add(1_000))).join();
+            assertEquals(4_000_000, progress.done());
+            Thread.sleep(20);
+        }
+        assertTrue(reports.size() >= 2, reports.toString());
+        assertTrue(reports.get(reports.size() - 1).startsWith("work: 4000000 / 4000000 (100.0%), "),
+                reports.toString());
+        final int closed = reports.size();
+        Thread.sleep(20);
+        assertEquals(closed, reports.size());
+
+        Progress.NONE.add(1_000);
+        assertEquals(0, Progress.NONE.done());
+    }
+
+    @Test
+    public void test_workers() {
+        assertEquals(Workers.parallelism(), Workers.pool().getParallelism());
+        assertTrue(Workers.pool().submit(() -> Thread.currentThread().isDaemon()).join());
+    }
+}
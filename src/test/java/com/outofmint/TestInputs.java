@@ -0,0 +1,22 @@
+package com.outofmint;
+
+import java.net.URISyntaxException;
+import java.nio.file.Path;
+import java.util.Objects;
+
+/**
+ * Resolves the puzzle inputs bundled as test resources to files.
+ */
+final class TestInputs {
+
+    private TestInputs() {
+    }
+
+    static Path input(String inputResource) {
+        try {
+            return Path.of(Objects.requireNonNull(TestInputs.class.getResource(inputResource)).toURI());
+        } catch (URISyntaxException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
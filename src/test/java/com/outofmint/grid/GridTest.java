@@ -0,0 +1,126 @@
+package com.outofmint.grid;
+
+import com.outofmint.io.Input;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+public class GridTest {
+
+    private static final Grid GRID = Grid.of(
+            "abcd",
+            "efgh",
+            "ijkl"
+    );
+
+    @Test
+    public void test_parse() {
+        final Grid grid = Grid.parse(Input.of("ab\r\ncd\r\n\r\n"), 2, (byte) '#');
+        assertEquals(2, grid.rows());
+        assertEquals(2, grid.cols());
+        assertEquals('d', grid.get(1, 1));
+        assertEquals('#', grid.get(-2, -2));
+        assertEquals('#', grid.get(3, 1));
+        assertEquals("ab\ncd\n", grid.toString());
+        assertThrows(IllegalArgumentException.class, () -> Grid.of("ab", "c"));
+    }
+
+    @Test
+    public void test_lines() {
+        assertEquals("efgh", GRID.row(1).toString());
+        assertEquals("cgk", GRID.column(2).toString());
+        assertEquals(6, GRID.diagonals());
+        assertEquals("i", GRID.diagonal(-2).toString());
+        assertEquals("afk", GRID.diagonal(0).toString());
+        assertEquals("bgl", GRID.diagonal(1).toString());
+        assertEquals("d", GRID.diagonal(3).toString());
+        assertEquals("a", GRID.antiDiagonal(0).toString());
+        assertEquals("dgj", GRID.antiDiagonal(3).toString());
+        assertEquals("hk", GRID.antiDiagonal(4).toString());
+        assertEquals("l", GRID.antiDiagonal(5).toString());
+    }
+
+    @Test
+    public void test_steps() {
+        final Grid grid = Grid.parse(Input.of("xmas\nmxxs\naxmx\nsxxs\n"), 3, (byte) 0);
+        final byte[] xmas = "xmas".getBytes(StandardCharsets.US_ASCII);
+        assertTrue(grid.matches(0, 0, Direction.RIGHT, xmas));
+        assertTrue(grid.matches(0, 0, Direction.DOWN, xmas));
+        assertFalse(grid.matches(0, 0, Direction.UP, xmas));
+        assertEquals(grid.index(1, 1), grid.index(0, 0) + grid.step(Direction.DOWN_RIGHT));
+        assertEquals(2, grid.rowOf(grid.index(2, 3)));
+        assertEquals(3, grid.colOf(grid.index(2, 3)));
+        assertEquals(Direction.DOWN_LEFT, Direction.UP_RIGHT.opposite());
+        assertEquals(7, grid.count((byte) 'x'));
+    }
+
+    @Test
+    public void test_stripedScan() {
+        final Random random = new Random(7);
+        final StringBuilder text = new StringBuilder();
+        for (int row = 0; row < 1000; row++) {
+            for (int col = 0; col < 200; col++) {
+                text.append(random.nextBoolean() ? 'x' : '.');
+            }
+            text.append('\n');
+        }
+        final Grid grid = Grid.parse(Input.of(text.toString()));
+        final StripedScan.RowCounter counter = (g, row) -> {
+            long count = 0;
+            for (int col = 0; col < g.cols(); col++) {
+                count += g.get(row, col) == 'x' ? 1 : 0;
+            }
+            return count;
+        };
+        assertEquals(grid.count((byte) 'x'), StripedScan.sum(grid, 0, grid.rows(), counter));
+        assertEquals(grid.count((byte) 'x'), StripedScan.sum(grid, 0, grid.rows(), counter, new ForkJoinPool(3)));
+        assertEquals(0, StripedScan.sum(grid, 5, 5, counter, ForkJoinPool.commonPool()));
+    }
+
+    @Test
+    public void test_wordSearch() {
+        final String[] words = {"ab", "abc", "cab", "aba", "a", "ccc", "abcab", "ab"};
+        final WordSearch search = WordSearch.of(words);
+        final ForkJoinPool pool = new ForkJoinPool(3);
+        final Random random = new Random(11);
+        for (int[] size : new int[][]{{300, 170}, {1, 40}, {40, 1}, {2, 3}}) {
+            final StringBuilder text = new StringBuilder();
+            for (int row = 0; row < size[0]; row++) {
+                for (int col = 0; col < size[1]; col++) {
+                    text.append("abcx".charAt(random.nextInt(4)));
+                }
+                text.append('\n');
+            }
+            // walks every word from every cell in every direction
+            final Grid grid = Grid.parse(Input.of(text.toString()), 5, (byte) 0);
+            final long[] exCounts = new long[words.length];
+            for (int w = 0; w < words.length; w++) {
+                final byte[] word = words[w].getBytes(StandardCharsets.US_ASCII);
+                for (int row = 0; row < grid.rows(); row++) {
+                    for (int col = 0; col < grid.cols(); col++) {
+                        for (Direction direction : Direction.values()) {
+                            exCounts[w] += grid.matches(row, col, direction, word) ? 1 : 0;
+                        }
+                    }
+                }
+            }
+            final long exTotal = Arrays.stream(exCounts).sum();
+            assertArrayEquals(exCounts, search.countEach(grid, pool), size[0] + "x" + size[1]);
+            assertEquals(exTotal, search.count(grid));
+            assertEquals(exTotal, search.count(grid, pool));
+        }
+        assertEquals(0, search.count(Grid.of("xyz", "zyx"), pool));
+        assertThrows(IllegalArgumentException.class, () -> WordSearch.of());
+        assertThrows(IllegalArgumentException.class, () -> WordSearch.of("ab", ""));
+    }
+}
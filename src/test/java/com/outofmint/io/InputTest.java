@@ -0,0 +1,191 @@
+package com.outofmint.io;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+public class InputTest {
+
+    public static Stream<Arguments> test_lines() {
+        return Stream.of(
+                Arguments.of("", List.of()),
+                Arguments.of("a", List.of("a")),
+                Arguments.of("a\n", List.of("a")),
+                Arguments.of("a\n\nbc\n", List.of("a", "", "bc")),
+                Arguments.of("a\r\nbc\r\n", List.of("a", "bc")),
+                Arguments.of("a\nbc", List.of("a", "bc"))
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource
+    public void test_lines(String text, List<String> exLines) {
+        final Input input = Input.of(text);
+        final LineIndex lines = input.lines();
+        final List<String> actual = new ArrayList<>();
+        for (int i = 0; i < lines.count(); i++) {
+            actual.add(input.string(lines.start(i), lines.end(i)));
+        }
+        assertEquals(exLines, actual);
+    }
+
+    @Test
+    public void test_cursor() {
+        final Cursor c = Input.of("seeds: 79 -14  55\nmul(12,3)\n").cursor();
+        assertTrue(c.match("seeds:".getBytes(StandardCharsets.US_ASCII)));
+        assertEquals(79, c.nextInt());
+        assertEquals(-14, c.nextLong());
+        assertEquals(55, c.nextInt());
+        assertTrue(c.atEol());
+        assertTrue(c.skipLine());
+        assertFalse(c.match("mult".getBytes(StandardCharsets.US_ASCII)));
+        assertTrue(c.match("mul(".getBytes(StandardCharsets.US_ASCII)));
+        assertEquals(12, c.nextInt());
+        assertTrue(c.match((byte) ','));
+        assertEquals(3, c.nextInt());
+        assertThrows(NumberFormatException.class, c::nextInt);
+        assertTrue(c.match((byte) ')'));
+        assertFalse(c.skipLine());
+        assertFalse(c.hasRemaining());
+    }
+
+    @Test
+    public void test_cursorOverflow() {
+        assertEquals(Long.MAX_VALUE, Input.of("9223372036854775807").cursor().nextLong());
+        assertEquals(Long.MIN_VALUE, Input.of("-9223372036854775808").cursor().nextLong());
+        assertThrows(NumberFormatException.class, () -> Input.of("9223372036854775808").cursor().nextLong());
+        assertThrows(NumberFormatException.class, () -> Input.of("-9223372036854775809").cursor().nextLong());
+        assertThrows(NumberFormatException.class, () -> Input.of("99999999999999999999").cursor().nextLong());
+        assertEquals(Integer.MIN_VALUE, Input.of(" -2147483648").cursor().nextInt());
+        assertThrows(NumberFormatException.class, () -> Input.of("2147483648").cursor().nextInt());
+        assertThrows(NumberFormatException.class, () -> Input.of("18446744073709551617").cursor().nextInt());
+
+        assertEquals(Long.MAX_VALUE, Input.of("9223372036854775807").cursor().nextDigits());
+        assertThrows(NumberFormatException.class, () -> Input.of("9223372036854775808").cursor().nextDigits());
+        assertEquals(123, Input.of("123,").cursor().nextDigits(3));
+        assertEquals(-1, Input.of("1234,").cursor().nextDigits(3));
+        assertEquals(-1, Input.of(",").cursor().nextDigits(3));
+    }
+
+    @Test
+    public void test_map(@TempDir Path dir) throws IOException {
+        final Path file = Files.writeString(dir.resolve("input.txt"), "3   4\n4   3\n");
+        assertEquals("3   4\n4   3\n", Input.map(file).toString());
+        final Cursor c = Input.map(file, 6, 6).cursor();
+        assertEquals(4, c.nextInt());
+        assertEquals(3, c.nextInt());
+        assertFalse(c.skipLine());
+    }
+
+    @Test
+    public void test_regions(@TempDir Path dir) throws IOException {
+        final Path file = Files.writeString(dir.resolve("input.txt"), "mul(1,2)mul(3,4)\nx\n");
+        final List<Input.Region> regions = Input.regions(file, 8, 3);
+        assertEquals(List.of("mul(1,2)mul", "mul(3,4)\nx\n", "\nx\n"),
+                regions.stream().map(r -> r.input().toString()).toList());
+        assertEquals(List.of(8, 8, 3), regions.stream().map(Input.Region::size).toList());
+        assertEquals(1, Input.regions(Files.writeString(dir.resolve("empty.txt"), ""), 8, 3).size());
+
+        assertEquals(List.of("3   4\n", "4   3\n", "55  6"), Input.lineRegions(
+                Files.writeString(dir.resolve("lines.txt"), "3   4\n4   3\n55  6"), 8).stream()
+                .map(Input::toString).toList());
+        assertEquals(List.of("a\nbb\n", "ccc\n"), Input.lineRegions(
+                Files.writeString(dir.resolve("short.txt"), "a\nbb\nccc\n"), 6).stream()
+                .map(Input::toString).toList());
+        assertThrows(IOException.class, () -> Input.lineRegions(
+                Files.writeString(dir.resolve("long.txt"), "a\n0123456789\n"), 6));
+    }
+
+    @Test
+    public void test_chunkedLines() {
+        // chunks of 16 bytes, with empty lines, a line longer than a chunk, CRLF and no trailing line break
+        final StringBuilder text = new StringBuilder();
+        final List<String> exLines = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            final String line = i % 37 == 0 ? "x".repeat(40) + i : Integer.toString(i);
+            exLines.add(line);
+            text.append(line).append(i % 5 == 0 ? "\r\n" : i % 7 == 0 ? "\n\n" : "\n");
+        }
+        text.append("end");
+        exLines.add("end");
+        final Input input = Input.of(text.toString());
+        final LineReducer<List<String>> collect = LineReducer.of(ArrayList::new, (lines, line) -> {
+            lines.add(line.toString());
+            return lines;
+        }, (earlier, later) -> {
+            earlier.addAll(later);
+            return earlier;
+        });
+        final ForkJoinPool pool = ForkJoinPool.commonPool();
+        assertEquals(exLines, ChunkedLines.reduce(input, 0, input.size(), collect, 16, pool));
+
+        final List<String> ordered = new ArrayList<>();
+        ChunkedLines.forEachOrdered(input, 0, input.size(), collect, ordered::addAll, 16, pool);
+        assertEquals(exLines, ordered);
+
+        assertEquals(exLines.size(), ChunkedLines.sum(input, line -> 1, pool));
+    }
+
+    public static Stream<Arguments> test_recordFormat() {
+        return Stream.of(
+                Arguments.of("Game {int}: ({int} {enum red|green|blue}(, )?(; )?)+",
+                        "Game 12: 3 blue, 4 red; 1 red, 2 green",
+                        List.of(0L, 12L, 1L, 3L, 2L, 2L, 1L, 4L, 2L, 0L, 1L, 1L, 2L, 0L, 1L, 2L, 2L, 1L)),
+                Arguments.of("Card {int}:({int})+ \\|({int})+", "Card   1: 41 -48 | 83  86",
+                        List.of(0L, 1L, 1L, 41L, 1L, -48L, 2L, 83L, 2L, 86L)),
+                Arguments.of("{int}\\|{int}", "47|53", List.of(0L, 47L, 1L, 53L)),
+                Arguments.of("({int}(,)?)*", "", List.of()),
+                Arguments.of("x(y)?z", "xz", List.of()),
+                // the optional group matches nothing, so the group around it fails cleanly before "end"
+                Arguments.of("((#{int} )?{enum a|b} )*end", "#1 a b end", List.of(0L, 1L, 1L, 0L, 1L, 1L))
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource
+    public void test_recordFormat(String format, String line, List<Long> exFields) {
+        final List<Long> fields = new ArrayList<>();
+        RecordFormat.compile(format).parse(Input.of(line).cursor(), (field, value) -> {
+            fields.add((long) field);
+            fields.add(value);
+        });
+        assertEquals(exFields, fields);
+    }
+
+    @Test
+    public void test_recordFormatErrors() {
+        final RecordFormat.FieldSink ignore = (field, value) -> {
+        };
+        final RecordFormat game = RecordFormat.compile("Game {int}: ({int} {enum red|green|blue}(, )?)+");
+        assertEquals(3, game.fields());
+        assertThrows(NumberFormatException.class, () -> game.parse(Input.of("Game 1: 3 purple").cursor(), ignore));
+        assertThrows(NumberFormatException.class, () -> game.parse(Input.of("Game 1: 3 red; ").cursor(), ignore));
+        assertThrows(NumberFormatException.class, () -> game.parse(Input.of("Game x: 3 red").cursor(), ignore));
+        // the optional group reports a field, so the group around it cannot fail cleanly
+        final RecordFormat tagged = RecordFormat.compile("((#{int} )?{enum a|b} )*end");
+        final NumberFormatException incomplete = assertThrows(NumberFormatException.class,
+                () -> tagged.parse(Input.of("a #1 end").cursor(), ignore));
+        assertTrue(incomplete.getMessage().startsWith("incomplete group"), incomplete.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> RecordFormat.compile("({int}"));
+        assertThrows(IllegalArgumentException.class, () -> RecordFormat.compile("{int})"));
+        assertThrows(IllegalArgumentException.class, () -> RecordFormat.compile("{float}"));
+        assertThrows(IllegalArgumentException.class, () -> RecordFormat.compile("a+"));
+    }
+}
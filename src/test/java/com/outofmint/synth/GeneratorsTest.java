@@ -0,0 +1,78 @@
+package com.outofmint.synth;
+
+import com.outofmint.Solver;
+import com.outofmint.Solvers;
+import com.outofmint.trace.TracerTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.api.parallel.ResourceAccessMode;
+import org.junit.jupiter.api.parallel.ResourceLock;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Path;
+import java.util.OptionalLong;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+@ResourceLock(value = TracerTest.TRACER, mode = ResourceAccessMode.READ)
+public class GeneratorsTest {
+
+    /**
+     * Scales large enough for the solvers to take their parallel paths.
+     */
+    public static Stream<Arguments> test_generatedAnswers() {
+        return Stream.of(
+                Arguments.of(2023, 1, 100_000),
+                Arguments.of(2023, 2, 300_000),
+                Arguments.of(2023, 3, 500),
+                Arguments.of(2023, 4, 50_000),
+                Arguments.of(2023, 5, 2_000),
+                Arguments.of(2024, 1, 200_000),
+                Arguments.of(2024, 2, 100_000),
+                Arguments.of(2024, 3, 4_000_000),
+                Arguments.of(2024, 4, 1_000),
+                Arguments.of(2024, 5, 10_000)
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource
+    @SuppressWarnings("unchecked")
+    public void test_generatedAnswers(int year, int day, long scale, @TempDir Path dir) throws IOException {
+        final Path input = dir.resolve("input.txt");
+        final Answers answers = Generators.of(year, day).write(scale, 7, input);
+        for (int part = 1; part <= 2; part++) {
+            final OptionalLong expected = answers.part(part);
+            assertTrue(expected.isPresent(), year + "/" + day + "/" + part);
+            final Solver<Object> solver = (Solver<Object>) Solvers.select(year + "/" + day + "/" + part).get(0);
+            assertEquals(expected.getAsLong(), solver.solve(solver.parse(input)), solver.name());
+        }
+    }
+
+    @Test
+    public void test_deterministic() throws IOException {
+        for (InputGenerator generator : Generators.all()) {
+            final StringWriter first = new StringWriter();
+            final StringWriter second = new StringWriter();
+            final StringWriter other = new StringWriter();
+            assertEquals(generator.write(50, 1, first), generator.write(50, 1, second), generator.name());
+            generator.write(50, 2, other);
+            assertEquals(first.toString(), second.toString(), generator.name());
+            assertNotEquals(first.toString(), other.toString(), generator.name());
+        }
+    }
+
+    @Test
+    public void test_unknownDay() {
+        assertThrows(IllegalArgumentException.class, () -> Generators.of(2023, 25));
+    }
+}
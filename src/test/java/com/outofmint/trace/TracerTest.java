@@ -0,0 +1,82 @@
+package com.outofmint.trace;
+
+import com.outofmint.grid.Grid;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.api.parallel.ResourceLock;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+@ResourceLock(TracerTest.TRACER)
+public class TracerTest {
+
+    /**
+     * The lock on the global {@link Tracer} installation: tests installing a sink hold it exclusively, tests running
+     * solvers share it, so no events of a concurrent test end up in a sink.
+     */
+    public static final String TRACER = "com.outofmint.trace.Tracer";
+
+    @Test
+    public void test_sampling() throws IOException {
+        final List<TraceEvent> events = new ArrayList<>();
+        assertFalse(Tracer.enabled());
+        try (Tracer.Installation ignored = Tracer.install(events::add, 3)) {
+            assertTrue(Tracer.enabled());
+            assertThrows(IllegalStateException.class, () -> Tracer.install(events::add, 1));
+            for (int i = 0; i < 10; i++) {
+                Tracer.emit(new TraceEvent.Spans(Integer.toString(i)));
+            }
+        }
+        assertFalse(Tracer.enabled());
+        Tracer.emit(new TraceEvent.Spans("dropped"));
+        assertEquals(List.of("0", "3", "6", "9"), events.stream().map(e -> ((TraceEvent.Spans) e).text()).toList());
+    }
+
+    @Test
+    public void test_renderAnsi(@TempDir Path dir) throws IOException {
+        final Path file = dir.resolve("trace.txt");
+        try (Tracer.Installation ignored = Tracer.install(new AsyncFileSink(file, new AnsiRenderer(), 2), 1)) {
+            Tracer.emit(new TraceEvent.Spans("two1nine", 0, 3, 4, 8));
+            Tracer.emit(new TraceEvent.Cell(Grid.of("ab", "cd"), 1, 0, TraceEvent.Mark.MATCH));
+        }
+        assertEquals(AnsiRenderer.ANSI_RED + "two" + AnsiRenderer.ANSI_RESET + "1"
+                        + AnsiRenderer.ANSI_RED + "nine" + AnsiRenderer.ANSI_RESET + "\n"
+                        + "==\nab\n" + AnsiRenderer.ANSI_GREEN_BG + "c" + AnsiRenderer.ANSI_RESET + "d\n==\n",
+                Files.readString(file));
+    }
+
+    @Test
+    public void test_renderHtml(@TempDir Path dir) throws IOException {
+        final Path file = dir.resolve("trace.html");
+        try (Tracer.Installation ignored = Tracer.install(new AsyncFileSink(file, new HtmlRenderer(), 2), 1)) {
+            Tracer.emit(new TraceEvent.Spans("a<b", 1, 2));
+        }
+        final String html = Files.readString(file);
+        assertTrue(html.startsWith("<!DOCTYPE html>"));
+        assertTrue(html.contains("<pre>a<span class=\"span\">&lt;</span>b</pre>"));
+        assertTrue(html.endsWith("</html>\n"));
+    }
+
+    @Test
+    public void test_rendererFailure(@TempDir Path dir) throws IOException {
+        final AsyncFileSink sink = new AsyncFileSink(dir.resolve("trace.txt"), (event, out) -> {
+            throw new IllegalStateException("broken renderer");
+        }, 2);
+        // far more events than the queue holds, none of which may block on the dead renderer
+        for (int i = 0; i < 100; i++) {
+            sink.accept(new TraceEvent.Spans(Integer.toString(i)));
+        }
+        final IOException failure = assertThrows(IOException.class, sink::close);
+        assertTrue(failure.getCause() instanceof IllegalStateException, failure.toString());
+    }
+}